@@ -0,0 +1,122 @@
+package chase.minecraft.architectury.simplemodconfig.benchmarks;
+
+import chase.minecraft.architectury.simplemodconfig.handlers.ConfigHandler;
+import chase.minecraft.architectury.simplemodconfig.keys.ConfigKey;
+import chase.minecraft.architectury.simplemodconfig.keys.IntKey;
+import chase.minecraft.architectury.simplemodconfig.test.TestConfig;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reads and writes of single fields across every supported field type, plus the whole-config reads used by the GUI and commands.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ConfigAccessBenchmark
+{
+	@Param({"Name", "Options", "Toggle", "SmallNumber", "LargeNumber", "SmallDecimal", "LargeDecimal"})
+	public String field;
+	
+	private ConfigHandler<TestConfig> handler;
+	private ConfigKey key;
+	private IntKey intKey;
+	private Object[] values;
+	private int next;
+	
+	@Setup
+	public void setup()
+	{
+		handler = new ConfigHandler<>("bench-access", new TestConfig());
+		// writes are measured without the disk, that is covered by ConfigIOBenchmark
+		handler.setWriteBehind(Long.MAX_VALUE);
+		key = handler.key(field);
+		intKey = handler.intKey("SmallNumber");
+		Object initial = handler.getInitial(field);
+		values = new Object[]{initial, other(initial)};
+	}
+	
+	@TearDown
+	public void tearDown()
+	{
+		handler.setWriteBehind(0);
+	}
+	
+	@Benchmark
+	public Object getByName()
+	{
+		return handler.get(field);
+	}
+	
+	@Benchmark
+	public Object getByKey()
+	{
+		return key.getValue();
+	}
+	
+	@Benchmark
+	public int getIntByKey()
+	{
+		return intKey.getInt();
+	}
+	
+	@Benchmark
+	public int getIntByField()
+	{
+		return handler.getConfig().SmallNumber;
+	}
+	
+	@Benchmark
+	public void setByName()
+	{
+		handler.set(field, values[next ^= 1]);
+	}
+	
+	@Benchmark
+	public void setIntByKey()
+	{
+		intKey.setInt((next ^= 1) + 1);
+	}
+	
+	@Benchmark
+	public void getAll(Blackhole blackhole)
+	{
+		blackhole.consume(handler.getAll());
+	}
+	
+	@Benchmark
+	public void getAllSorted(Blackhole blackhole)
+	{
+		blackhole.consume(handler.getAllSorted());
+	}
+	
+	@Benchmark
+	public Object getTooltip()
+	{
+		return handler.getTooltip(field);
+	}
+	
+	/**
+	 * Gets a second valid value for a field so a write always changes something
+	 */
+	private Object other(Object value)
+	{
+		if (value instanceof Boolean bool)
+			return !bool;
+		if (value instanceof Integer number)
+			return number + 1;
+		if (value instanceof Long number)
+			return number + 1;
+		if (value instanceof Float number)
+			return number + 1;
+		if (value instanceof Double number)
+			return number + 1;
+		String[] options = handler.getConfigOptions(field).options();
+		return options.length > 1 ? options[1] : value + "!";
+	}
+}
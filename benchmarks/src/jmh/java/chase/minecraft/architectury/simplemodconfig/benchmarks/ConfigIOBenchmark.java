@@ -0,0 +1,75 @@
+package chase.minecraft.architectury.simplemodconfig.benchmarks;
+
+import chase.minecraft.architectury.simplemodconfig.handlers.ConfigHandler;
+import chase.minecraft.architectury.simplemodconfig.schema.ConfigField;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Loading and saving config files with 10 to 10,000 fields, the config classes are generated by the generateBenchmarkConfigs task.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ConfigIOBenchmark
+{
+	@Param({"10", "100", "1000", "10000"})
+	public int size;
+	
+	private ConfigHandler<?> handler;
+	private ConfigField counter;
+	private int next;
+	
+	@Setup
+	public void setup()
+	{
+		String name = "bench-io-" + size;
+		handler = switch (size)
+		{
+			case 10 -> new ConfigHandler<>(name, new Config10());
+			case 100 -> new ConfigHandler<>(name, new Config100());
+			case 1000 -> new ConfigHandler<>(name, new Config1000());
+			case 10000 -> new ConfigHandler<>(name, new Config10000());
+			default -> throw new IllegalArgumentException("No generated config with %d fields".formatted(size));
+		};
+		// Field0 is an int
+		counter = handler.getSchema().fields().get(0);
+		handler.save();
+	}
+	
+	/**
+	 * Reads and parses the file, nothing changed so nothing is applied
+	 */
+	@Benchmark
+	public Set<String> load()
+	{
+		return handler.reload();
+	}
+	
+	/**
+	 * Encodes, hashes and writes the file after one field changed
+	 */
+	@Benchmark
+	public void saveChanged()
+	{
+		synchronized (handler)
+		{
+			counter.setInt(handler.getConfig(), ++next);
+		}
+		handler.save();
+	}
+	
+	/**
+	 * Encodes and hashes the file, the write is skipped because the content did not change
+	 */
+	@Benchmark
+	public void saveUnchanged()
+	{
+		handler.save();
+	}
+}
@@ -0,0 +1,81 @@
+package chase.minecraft.architectury.simplemodconfig.benchmarks;
+
+import chase.minecraft.architectury.simplemodconfig.handlers.ConfigHandler;
+import chase.minecraft.architectury.simplemodconfig.handlers.LoadedConfigs;
+import chase.minecraft.architectury.simplemodconfig.test.TestConfig;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Growing the registry to up to 1,000 mods, and looking mods up once it is full.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LoadedConfigsBenchmark
+{
+	@Param({"10", "100", "1000"})
+	public int mods;
+	
+	private String[] names;
+	private String[] modIds;
+	private ConfigHandler<?>[] handlers;
+	private LoadedConfigs full;
+	private int next;
+	
+	@Setup
+	public void setup()
+	{
+		names = new String[mods];
+		modIds = new String[mods];
+		handlers = new ConfigHandler<?>[mods];
+		for (int i = 0; i < mods; i++)
+		{
+			// registration order differs from the sorted order like it does with real mod lists
+			names[i] = (i % 2 == 0 ? "Mod " : "mod ") + Integer.toHexString(i * 0x9E3779B1);
+			modIds[i] = "bench-registry-" + i;
+			// lazy, the benchmark is about the registry and not the files
+			handlers[i] = new ConfigHandler<>(modIds[i], new TestConfig(), true);
+		}
+		full = register();
+	}
+	
+	/**
+	 * Registers every mod into an empty registry
+	 */
+	@Benchmark
+	public LoadedConfigs register()
+	{
+		LoadedConfigs registry = new LoadedConfigs()
+		{
+		};
+		for (int i = 0; i < mods; i++)
+		{
+			registry.add(names[i], handlers[i]);
+		}
+		return registry;
+	}
+	
+	@Benchmark
+	public ConfigHandler<?> getByName()
+	{
+		return full.get(names[next++ % mods]);
+	}
+	
+	@Benchmark
+	public ConfigHandler<?> getByModId()
+	{
+		return full.getByModId(modIds[next++ % mods]);
+	}
+	
+	@Benchmark
+	public void iterate(Blackhole blackhole)
+	{
+		full.get().forEach(blackhole::consume);
+	}
+}
@@ -0,0 +1,46 @@
+package chase.minecraft.architectury.simplemodconfig.benchmarks;
+
+import chase.minecraft.architectury.simplemodconfig.handlers.ConfigHandler;
+import chase.minecraft.architectury.simplemodconfig.search.SettingIndex;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Searching the settings of every mod with 40,000 indexed settings, from queries matching nearly everything to queries matching a handful.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SettingIndexBenchmark
+{
+	private static final int MODS = 4;
+	
+	@Param({"field", "generated field 12", "field99", "field 9999", "9", "missing"})
+	public String query;
+	
+	private SettingIndex index;
+	
+	@Setup
+	public void setup()
+	{
+		index = new SettingIndex(String.CASE_INSENSITIVE_ORDER);
+		for (int i = 0; i < MODS; i++)
+		{
+			// lazy, only the schema is indexed
+			index.add("Mod " + i, new ConfigHandler<>("bench-search-" + i, new Config10000(), true));
+		}
+		index.awaitIndexed().join();
+	}
+	
+	@Benchmark
+	public List<SettingIndex.Setting> search()
+	{
+		// the limit the settings search of the GUI uses
+		return index.search(query, 200);
+	}
+}
@@ -0,0 +1,13 @@
+package chase.minecraft.architectury.simplemodconfig;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * Benchmark stub of the mod entrypoint, the real one pulls in the client screens and Architectury events
+ */
+public class SimpleModConfig
+{
+	public static final String MOD_ID = "simplemodconfig";
+	public static final Logger log = LogManager.getLogger(MOD_ID);
+}
@@ -0,0 +1,39 @@
+package dev.architectury.platform;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Benchmark stub of Architectury's Platform, configs are written to a temp folder that is created once per JVM
+ */
+public final class Platform
+{
+	private static final Path CONFIG_FOLDER;
+	
+	static
+	{
+		try
+		{
+			CONFIG_FOLDER = Files.createTempDirectory("simplemodconfig-bench");
+		} catch (IOException e)
+		{
+			throw new UncheckedIOException(e);
+		}
+	}
+	
+	private Platform()
+	{
+	}
+	
+	public static Path getConfigFolder()
+	{
+		return CONFIG_FOLDER;
+	}
+	
+	public static boolean isDevelopmentEnvironment()
+	{
+		return false;
+	}
+}
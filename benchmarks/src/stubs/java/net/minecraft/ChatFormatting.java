@@ -0,0 +1,31 @@
+package net.minecraft;
+
+/**
+ * Benchmark stub of Minecraft's ChatFormatting, only the constants used by the library
+ */
+public enum ChatFormatting
+{
+	BLUE('9'),
+	GREEN('a'),
+	AQUA('b'),
+	RED('c'),
+	GOLD('6'),
+	YELLOW('e'),
+	WHITE('f'),
+	GRAY('7'),
+	DARK_GRAY('8'),
+	RESET('r');
+	
+	private final String code;
+	
+	ChatFormatting(char code)
+	{
+		this.code = "§" + code;
+	}
+	
+	@Override
+	public String toString()
+	{
+		return code;
+	}
+}
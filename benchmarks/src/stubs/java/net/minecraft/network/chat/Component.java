@@ -0,0 +1,26 @@
+package net.minecraft.network.chat;
+
+/**
+ * Benchmark stub of Minecraft's Component, a plain string holder
+ */
+public interface Component
+{
+	static MutableComponent literal(String text)
+	{
+		return new MutableComponent(text);
+	}
+	
+	static MutableComponent translatable(String key)
+	{
+		return new MutableComponent(key);
+	}
+	
+	static MutableComponent empty()
+	{
+		return new MutableComponent("");
+	}
+	
+	String getString();
+	
+	MutableComponent copy();
+}
@@ -0,0 +1,37 @@
+package net.minecraft.network.chat;
+
+/**
+ * Benchmark stub of Minecraft's MutableComponent, appends to a string builder
+ */
+public class MutableComponent implements Component
+{
+	private final StringBuilder text;
+	
+	MutableComponent(String text)
+	{
+		this.text = new StringBuilder(text);
+	}
+	
+	public MutableComponent append(String text)
+	{
+		this.text.append(text);
+		return this;
+	}
+	
+	public MutableComponent append(Component component)
+	{
+		return append(component.getString());
+	}
+	
+	@Override
+	public MutableComponent copy()
+	{
+		return new MutableComponent(text.toString());
+	}
+	
+	@Override
+	public String getString()
+	{
+		return text.toString();
+	}
+}
@@ -0,0 +1,120 @@
+package chase.minecraft.architectury.simplemodconfig.sync;
+
+import chase.minecraft.architectury.simplemodconfig.handlers.ConfigHandler;
+import chase.minecraft.architectury.simplemodconfig.test.TestConfig;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Round trips of the sync protocol over the {@link InMemorySyncChannel}, TestConfig syncs Toggle and SmallNumber.
+ * The server and the client handler share a name, which is how the channel routes messages, every test uses a new name so they do not share a config file with other tests.
+ */
+class ConfigSyncTest
+{
+	private static final AtomicInteger NAMES = new AtomicInteger();
+	private final UUID player = UUID.randomUUID();
+	private ConfigHandler<TestConfig> serverConfig;
+	private ConfigHandler<TestConfig> clientConfig;
+	private InMemorySyncChannel channel;
+	private ConfigSyncServer server;
+	private ConfigSyncClient<TestConfig> client;
+	
+	@BeforeEach
+	void setUp()
+	{
+		String name = "sync-test-" + NAMES.incrementAndGet();
+		serverConfig = new ConfigHandler<>(name, new TestConfig());
+		clientConfig = new ConfigHandler<>(name, new TestConfig());
+		channel = new InMemorySyncChannel();
+		server = new ConfigSyncServer(serverConfig, channel);
+		client = new ConfigSyncClient<>(clientConfig);
+		channel.connect(player, client);
+	}
+	
+	@Test
+	void joinSendsSnapshotOfSyncedFields()
+	{
+		serverConfig.set("SmallNumber", 7);
+		serverConfig.set("Toggle", true);
+		serverConfig.set("Name", "server");
+		assertFalse(client.isSynced());
+		
+		server.join(player);
+		
+		assertEquals(1, channel.getMessagesSent());
+		assertTrue(client.isSynced());
+		assertEquals(0, client.getVersion());
+		assertEquals(7, client.get("SmallNumber"));
+		assertEquals(true, client.get("Toggle"));
+		// not synced, the view keeps the client's own value
+		assertEquals("Hello World", client.get("Name"));
+	}
+	
+	@Test
+	void setIsSentAsDeltaOnTick()
+	{
+		server.join(player);
+		List<String> changed = new ArrayList<>();
+		client.onChange((name, oldValue, newValue) -> changed.add("%s %s -> %s".formatted(name, oldValue, newValue)));
+		
+		serverConfig.set("SmallNumber", 9);
+		assertEquals(5, client.get("SmallNumber"), "deltas are only sent on tick");
+		server.tick();
+		
+		assertEquals(2, channel.getMessagesSent());
+		assertEquals(1, client.getVersion());
+		assertEquals(9, client.get("SmallNumber"));
+		assertEquals(List.of("SmallNumber 5 -> 9"), changed);
+		// the client's own config is never changed by sync
+		assertEquals(5, clientConfig.get("SmallNumber"));
+	}
+	
+	@Test
+	void changeRevertedWithinTickSendsNothing()
+	{
+		server.join(player);
+		serverConfig.set("SmallNumber", 9);
+		serverConfig.set("SmallNumber", 5);
+		server.tick();
+		
+		assertEquals(1, channel.getMessagesSent());
+		assertEquals(0, server.getVersion());
+	}
+	
+	@Test
+	void clientValuesAreKeptForFieldsTheServerDoesNotSend()
+	{
+		clientConfig.set("Name", "before join");
+		assertEquals("before join", client.get("Name"), "the view follows the client before the snapshot");
+		server.join(player);
+		
+		clientConfig.set("Name", "after join");
+		clientConfig.set("SmallNumber", 3);
+		
+		assertEquals("after join", client.get("Name"));
+		assertEquals("after join", client.getConfig().Name);
+		assertEquals(5, client.get("SmallNumber"), "synced fields keep the server's value");
+		
+		channel.disconnect(player);
+		assertFalse(client.isSynced());
+		assertEquals(3, client.get("SmallNumber"), "after leaving the view holds the client's values again");
+		clientConfig.set("SmallNumber", 4);
+		assertEquals(4, client.get("SmallNumber"));
+	}
+	
+	@Test
+	void sectionsAreNotShared()
+	{
+		clientConfig.set("Section.Level", 8);
+		
+		assertEquals(8, client.getConfig().Section.Level);
+		assertNotSame(clientConfig.getConfig().Section, client.getConfig().Section);
+	}
+}
@@ -2,7 +2,11 @@ package chase.minecraft.architectury.simplemodconfig;
 
 import chase.minecraft.architectury.simplemodconfig.config.SimpleModConfigConfig;
 import chase.minecraft.architectury.simplemodconfig.handlers.ConfigHandler;
+import chase.minecraft.architectury.simplemodconfig.handlers.LoadedConfigs;
+import chase.minecraft.architectury.simplemodconfig.io.ConfigWatcher;
+import chase.minecraft.architectury.simplemodconfig.io.WriteBehindSaver;
 import chase.minecraft.architectury.simplemodconfig.test.TestConfig;
+import dev.architectury.event.events.common.LifecycleEvent;
 import dev.architectury.platform.Platform;
 import net.fabricmc.api.EnvType;
 import net.fabricmc.api.Environment;
@@ -23,11 +27,23 @@ public class SimpleModConfig
 	public static void init()
 	{
 		log.info("Initializing Simple Mod Config");
+		LifecycleEvent.SERVER_STOPPING.register(server -> WriteBehindSaver.getInstance().flushAll());
+		if (configHandler.getConfig().HotReload)
+		{
+			ConfigWatcher.getInstance().start();
+		}
+		if (configHandler.getConfig().ParallelLoading)
+		{
+			// every mod has registered its configs by setup, the first world waits for the ones still loading
+			LifecycleEvent.SETUP.register(() -> LoadedConfigs.getInstance().loadPending());
+			LifecycleEvent.SERVER_BEFORE_START.register(server -> LoadedConfigs.getInstance().awaitLoaded());
+		}
 		if (Platform.isDevelopmentEnvironment())
 		{
 			String displayName = "Test Config";
 			testBuilder = new SimpleModConfigBuilder(new ConfigHandler<>("test-config", new TestConfig()), displayName)
-					.withCommand("test-config", Component.literal(displayName));
+					.withCommand("test-config", Component.literal(displayName))
+					.withSync();
 		}
 	}
 	
@@ -35,6 +51,8 @@ public class SimpleModConfig
 	public static void initClient()
 	{
 		builder = new SimpleModConfigBuilder(configHandler, "Simple Mod Config");
+		// every mod has registered its configs by setup, the setting search index is built in the background from there
+		LifecycleEvent.SETUP.register(() -> LoadedConfigs.getInstance().getSettingIndex());
 	}
 	
 	public static ResourceLocation id(String id)
@@ -4,9 +4,17 @@ import chase.minecraft.architectury.simplemodconfig.client.gui.screen.ConfigScre
 import chase.minecraft.architectury.simplemodconfig.handlers.CommandHandler;
 import chase.minecraft.architectury.simplemodconfig.handlers.ConfigHandler;
 import chase.minecraft.architectury.simplemodconfig.handlers.LoadedConfigs;
+import chase.minecraft.architectury.simplemodconfig.io.FsyncPolicy;
+import chase.minecraft.architectury.simplemodconfig.sync.ConfigSyncClient;
+import chase.minecraft.architectury.simplemodconfig.sync.ConfigSyncServer;
+import chase.minecraft.architectury.simplemodconfig.sync.NetworkSyncChannel;
 import dev.architectury.event.events.client.ClientTickEvent;
 import dev.architectury.event.events.common.CommandRegistrationEvent;
+import dev.architectury.event.events.common.PlayerEvent;
+import dev.architectury.event.events.common.TickEvent;
+import dev.architectury.platform.Platform;
 import dev.architectury.registry.client.keymappings.KeyMappingRegistry;
+import dev.architectury.utils.Env;
 import net.fabricmc.api.EnvType;
 import net.fabricmc.api.Environment;
 import net.minecraft.client.KeyMapping;
@@ -20,6 +28,10 @@ public class SimpleModConfigBuilder
 	public final String modDisplayName;
 	@Nullable
 	private CommandHandler cmdHandler = null;
+	@Nullable
+	private ConfigSyncServer syncServer = null;
+	@Nullable
+	private ConfigSyncClient<?> syncClient = null;
 	
 	public SimpleModConfigBuilder(ConfigHandler<?> configHandler, String modDisplayName)
 	{
@@ -68,6 +80,119 @@ public class SimpleModConfigBuilder
 		return this;
 	}
 	
+	/**
+	 * saves changes on a background thread, changes made within one second are written to disk once
+	 *
+	 * @return The Simple Mod Config Builder
+	 */
+	public SimpleModConfigBuilder withWriteBehind()
+	{
+		return withWriteBehind(1000);
+	}
+	
+	/**
+	 * saves changes on a background thread, changes made within the debounce window are written to disk once
+	 *
+	 * @param debounceMillis the debounce window in milliseconds
+	 * @return The Simple Mod Config Builder
+	 */
+	public SimpleModConfigBuilder withWriteBehind(long debounceMillis)
+	{
+		configHandler.setWriteBehind(debounceMillis);
+		return this;
+	}
+	
+	/**
+	 * sets how hard saves push the config file to disk, by default flushing is left to the operating system
+	 *
+	 * @param fsyncPolicy the fsync policy
+	 * @return The Simple Mod Config Builder
+	 */
+	public SimpleModConfigBuilder withFsync(FsyncPolicy fsyncPolicy)
+	{
+		configHandler.setFsyncPolicy(fsyncPolicy);
+		return this;
+	}
+	
+	/**
+	 * keeps a binary copy of the parsed config next to the config file, unchanged files are then decoded from it on startup instead of being parsed
+	 *
+	 * @return The Simple Mod Config Builder
+	 */
+	public SimpleModConfigBuilder withBinaryCache()
+	{
+		configHandler.setBinaryCache(true);
+		return this;
+	}
+	
+	/**
+	 * publishes an immutable snapshot of the config on every change, reading {@link ConfigHandler#getSnapshot()} from worker threads then needs no lock
+	 *
+	 * @return The Simple Mod Config Builder
+	 */
+	public SimpleModConfigBuilder withSnapshots()
+	{
+		configHandler.setSnapshots(true);
+		return this;
+	}
+	
+	/**
+	 * sends the fields marked with {@code @SimpleConfig(sync = true)} to the clients, a snapshot when a player joins and after that the changed fields once per tick.
+	 * Clients read the server's values through {@link #getSyncClient()}, their own config is left untouched.
+	 *
+	 * @return The Simple Mod Config Builder
+	 */
+	public SimpleModConfigBuilder withSync()
+	{
+		return withSync(new ConfigSyncServer(configHandler, NetworkSyncChannel.getInstance()));
+	}
+	
+	/**
+	 * sends the given fields to the clients, a snapshot when a player joins and after that the changed fields once per tick
+	 *
+	 * @param fields the names of the fields to sync
+	 * @return The Simple Mod Config Builder
+	 */
+	public SimpleModConfigBuilder withSync(String... fields)
+	{
+		return withSync(new ConfigSyncServer(configHandler, NetworkSyncChannel.getInstance(), fields));
+	}
+	
+	private SimpleModConfigBuilder withSync(ConfigSyncServer server)
+	{
+		syncServer = server;
+		PlayerEvent.PLAYER_JOIN.register(player -> server.join(player.getUUID()));
+		PlayerEvent.PLAYER_QUIT.register(player -> server.leave(player.getUUID()));
+		TickEvent.SERVER_POST.register(instance -> server.tick());
+		if (Platform.getEnvironment() == Env.CLIENT)
+		{
+			ConfigSyncClient<?> client = new ConfigSyncClient<>(configHandler);
+			NetworkSyncChannel.getInstance().register(client);
+			syncClient = client;
+		}
+		return this;
+	}
+	
+	/**
+	 * gets the server side of sync
+	 *
+	 * @return the sync server, or null if sync is not enabled
+	 */
+	public @Nullable ConfigSyncServer getSyncServer()
+	{
+		return syncServer;
+	}
+	
+	/**
+	 * gets the client's view of the server's values
+	 *
+	 * @return the sync client, or null if sync is not enabled or this is a dedicated server
+	 */
+	public @Nullable ConfigSyncClient<?> getSyncClient()
+	{
+		return syncClient;
+	}
+	
 	/**
 	 * Creates a keybinding to open config screen
 	 *
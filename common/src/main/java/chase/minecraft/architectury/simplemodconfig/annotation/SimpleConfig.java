@@ -20,4 +20,9 @@ public @interface SimpleConfig
 	double max() default Double.MAX_VALUE;
 	
 	String[] options() default {};
+	
+	/**
+	 * Sends the value of the field to the clients of a server built with {@code withSync()}
+	 */
+	boolean sync() default false;
 }
@@ -10,6 +10,7 @@ import net.minecraft.network.chat.Component;
 
 import java.util.function.Consumer;
 import java.util.function.Function;
+import java.util.function.Predicate;
 
 /**
  * The GUIFactory class contains static methods for creating various GUI components such as buttons, text boxes, and cycle buttons with specified parameters and callbacks.
@@ -62,13 +63,24 @@ public class GUIFactory
 	public static EditBox createNumbersTextBox(Font font, int x, int y, int width, int height, Component label, Class<? extends Number> number)
 	{
 		EditBox box = new EditBox(font, x, y, width, height, label);
-		box.setFilter(f ->
+		box.setFilter(numberFilter(number));
+		return box;
+	}
+	
+	/**
+	 * Creates a text filter that only accepts text that parses as the given number type, or no text at all.
+	 *
+	 * @param number The number type, Integer, Float, Double or Long.
+	 * @return The filter, usable with {@link EditBox#setFilter(Predicate)}.
+	 */
+	public static Predicate<String> numberFilter(Class<? extends Number> number)
+	{
+		return f ->
 		{
 			if (f.isEmpty())
 				return true;
 			try
 			{
-				boolean test = number == Integer.class;
 				if (number == Integer.class)
 				{
 					Integer.parseInt(f);
@@ -88,8 +100,7 @@ public class GUIFactory
 			{
 				return false;
 			}
-		});
-		return box;
+		};
 	}
 	
 	/**
@@ -1,7 +1,10 @@
 package chase.minecraft.architectury.simplemodconfig.client.gui.component;
 
+import chase.minecraft.architectury.simplemodconfig.SimpleModConfig;
 import chase.minecraft.architectury.simplemodconfig.annotation.SimpleConfig;
 import chase.minecraft.architectury.simplemodconfig.handlers.ConfigHandler;
+import chase.minecraft.architectury.simplemodconfig.handlers.ConfigTransaction;
+import chase.minecraft.architectury.simplemodconfig.schema.ConfigPath;
 import com.google.common.collect.ImmutableList;
 import com.mojang.blaze3d.systems.RenderSystem;
 import net.fabricmc.api.EnvType;
@@ -10,21 +13,34 @@ import net.minecraft.client.Minecraft;
 import net.minecraft.client.gui.GuiGraphics;
 import net.minecraft.client.gui.components.*;
 import net.minecraft.client.gui.components.events.GuiEventListener;
+import net.minecraft.client.gui.components.toasts.SystemToast;
 import net.minecraft.client.gui.narration.NarratableEntry;
 import net.minecraft.client.gui.screens.Screen;
 import net.minecraft.network.chat.Component;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
 import java.util.List;
 import java.util.Objects;
 
 import static chase.minecraft.architectury.simplemodconfig.client.gui.GUIFactory.*;
 
+/**
+ * The config list is virtualized, every field is a lightweight {@link ConfigEntry} row model and widgets only exist for the rows inside the viewport.
+ * A row takes a {@link Slot} of widgets from a pool when it is first rendered and hands it back once it scrolls out of view, so scrolling rebinds pooled widgets instead of creating new ones.
+ */
 @Environment(EnvType.CLIENT)
 public class ConfigListComponent extends ContainerObjectSelectionList<ConfigListComponent.Entry>
 {
+	private static final String[] BOOLEAN_VALUES = {"TRUE", "FALSE"};
 	@NotNull
 	private final ConfigHandler<?> configHandler;
+	private final Deque<Slot> freeSlots = new ArrayDeque<>();
+	private final List<ConfigEntry> boundEntries = new ArrayList<>();
+	private int frame;
 	
 	public ConfigListComponent(@NotNull ConfigHandler<?> configHandler, int width, int height, int startY, int endY, int startX, int itemHeight)
 	{
@@ -32,7 +48,8 @@ public class ConfigListComponent extends ContainerObjectSelectionList<ConfigList
 		this.x0 = startX;
 		this.configHandler = configHandler;
 		clearEntries();
-		configHandler.getAllSorted().forEach((key, value) -> addEntry(new ConfigEntry(key, value)));
+		// sections and collections get one row per value inside them, keyed by its path
+		configHandler.getLeaves().forEach((key, value) -> addEntry(new ConfigEntry(key, value)));
 		refreshEntries();
 	}
 	
@@ -58,10 +75,49 @@ public class ConfigListComponent extends ContainerObjectSelectionList<ConfigList
 		children().forEach(Entry::refreshEntry);
 	}
 	
+	/**
+	 * Saves the edited entries in a single transaction, so the config file is written at most once.
+	 * If an edit is rejected the other edits are still saved one by one, and the rejected ones are shown in a toast.
+	 */
 	public void save()
 	{
-		children().forEach(Entry::save);
-		configHandler.save();
+		List<ConfigEntry> edited = new ArrayList<>();
+		for (Entry entry : children())
+		{
+			if (entry instanceof ConfigEntry configEntry && configEntry.isEdited())
+			{
+				edited.add(configEntry);
+			}
+		}
+		if (edited.isEmpty())
+		{
+			return;
+		}
+		try
+		{
+			configHandler.edit(transaction -> edited.forEach(entry -> entry.save(transaction)));
+			return;
+		} catch (IllegalArgumentException ignore)
+		{
+			// retried one by one below so the valid edits are kept
+		}
+		List<String> errors = new ArrayList<>();
+		for (ConfigEntry entry : edited)
+		{
+			try
+			{
+				configHandler.edit(entry::save);
+			} catch (IllegalArgumentException e)
+			{
+				errors.add(e.getMessage());
+			}
+		}
+		if (!errors.isEmpty())
+		{
+			String message = String.join(", ", errors);
+			SimpleModConfig.log.error("Unable to save config: {}, {}", configHandler.getName(), message);
+			minecraft.getToasts().addToast(SystemToast.multiline(minecraft, SystemToast.SystemToastIds.PERIODIC_NOTIFICATION, Component.translatable("simplemodconfig.gui.save.failed", configHandler.getDisplayName()), Component.literal(message)));
+		}
 	}
 	
 	public void resetEntries()
@@ -69,79 +125,185 @@ public class ConfigListComponent extends ContainerObjectSelectionList<ConfigList
 		children().forEach(Entry::reset);
 	}
 	
-	public void render(GuiGraphics graphics, int i, int j, float f, int width, int height, int startY, int endY, int startX)
+	/**
+	 * Scrolls the entry of a field, or the first entry inside a section, to the middle of the list
+	 *
+	 * @param name the field name
+	 */
+	public void focusEntry(String name)
 	{
+		for (Entry entry : children())
+		{
+			if (entry instanceof ConfigEntry configEntry && (ConfigPath.isPath(configEntry.name) ? ConfigPath.parse(configEntry.name).getField() : configEntry.name).equals(name))
+			{
+				centerScrollOn(entry);
+				return;
+			}
+		}
+	}
+	
+	/**
+	 * Renders the visible rows, rows that were bound last frame and are no longer visible give their widgets back to the pool
+	 */
+	@Override
+	public void render(@NotNull GuiGraphics graphics, int i, int j, float f)
+	{
+		frame++;
 		super.render(graphics, i, j, f);
+		for (int index = boundEntries.size() - 1; index >= 0; index--)
+		{
+			ConfigEntry entry = boundEntries.get(index);
+			if (entry.renderedFrame != frame)
+			{
+				boundEntries.remove(index);
+				freeSlots.push(entry.unbind());
+			}
+		}
+	}
+	
+	public void render(GuiGraphics graphics, int i, int j, float f, int width, int height, int startY, int endY, int startX)
+	{
+		render(graphics, i, j, f);
 		updateSize(width, height, startY, endY);
 		this.x0 = startX;
 	}
 	
+	/**
+	 * Gets a slot from the pool, a new one is only created while the pool is empty
+	 */
+	private Slot acquire(ConfigEntry entry)
+	{
+		Slot slot = freeSlots.poll();
+		if (slot == null)
+		{
+			slot = new Slot();
+		}
+		boundEntries.add(entry);
+		return slot;
+	}
+	
 	@Environment(EnvType.CLIENT)
 	public static abstract class Entry extends ContainerObjectSelectionList.Entry<Entry>
 	{
 		public abstract void refreshEntry();
 		
-		public abstract void save();
+		public abstract void save(ConfigTransaction transaction);
 		
 		public abstract void reset();
 	}
 	
+	/**
+	 * The widgets of one visible row, the press actions and the text responder go to whichever entry the slot is bound to
+	 */
+	@Environment(EnvType.CLIENT)
+	private final class Slot
+	{
+		private final Button resetButton;
+		private final Button cycleButton;
+		private final EditBox editBox;
+		private ConfigEntry entry;
+		private List<AbstractWidget> widgets;
+		
+		private Slot()
+		{
+			resetButton = createButton(0, 0, 50, 20, Component.translatable("controls.reset"), button -> entry.reset());
+			cycleButton = createButton(0, 0, 100, 20, Component.empty(), button -> entry.cycle(Screen.hasShiftDown()));
+			cycleButton.setTooltipDelay(0);
+			editBox = createTextBox(ConfigListComponent.this.minecraft.font, 0, 0, 100, 20, Component.empty());
+		}
+		
+		private void bind(ConfigEntry entry)
+		{
+			this.entry = entry;
+			AbstractWidget input;
+			if (entry.isCycled())
+			{
+				input = cycleButton;
+			} else
+			{
+				input = editBox;
+				editBox.setMessage(Component.literal(entry.name));
+				editBox.setFilter(entry.value instanceof Number number ? numberFilter(number.getClass()) : Objects::nonNull);
+			}
+			input.setTooltip(entry.getTooltip());
+			widgets = ImmutableList.of(resetButton, input);
+			show();
+		}
+		
+		/**
+		 * Shows the state of the bound entry, the responder is detached so showing the text is not reported back as an edit
+		 */
+		private void show()
+		{
+			resetButton.active = entry.modified;
+			if (entry.isCycled())
+			{
+				cycleButton.setMessage(Component.literal(entry.text));
+			} else
+			{
+				editBox.setResponder(null);
+				editBox.setValue(entry.text);
+				editBox.setResponder(entry::onTextChanged);
+			}
+		}
+		
+		private void unbind()
+		{
+			editBox.setResponder(null);
+			editBox.setFocused(false);
+			cycleButton.setFocused(false);
+			resetButton.setFocused(false);
+			entry = null;
+			widgets = null;
+		}
+	}
+	
+	/**
+	 * The row model of one config field. It keeps the edited value, the text being typed and whether the value differs from the default,
+	 * the widgets only display this state while the row is visible.
+	 */
 	public class ConfigEntry extends Entry
 	{
 		private final String name;
-		private final Button resetButton;
 		private final Component displayName;
 		private final SimpleConfig options;
-		private AbstractWidget inputWidget = null;
+		private final Object initial;
+		private final String initialText;
 		private Object value;
+		private String text;
+		private boolean modified;
+		// the text is empty or out of range, it is reset once the text box loses focus
+		private boolean invalid;
+		private @Nullable Tooltip tooltip;
+		private @Nullable Component tooltipText;
+		private @Nullable Slot slot;
+		private int renderedFrame;
 		
 		public ConfigEntry(String name, Object value)
 		{
 			options = ConfigListComponent.this.configHandler.getConfigOptions(name);
 			assert options != null;
 			this.name = name;
-			this.value = value;
-			this.displayName = getDisplayName();
-			resetButton = createButton(0, 0, 50, 20, Component.translatable("controls.reset"), button ->
-			{
-				reset();
-			});
-			if (value instanceof Boolean)
-			{
-				inputWidget = createCycleButton(Component.literal(name), 0, 0, 100, 20, value.toString().toUpperCase(), new String[]{"TRUE", "FALSE"}, Component.empty(), val ->
-				{
-					this.value = Boolean.valueOf(val);
-					if (inputWidget != null)
-						inputWidget.setTooltip(Tooltip.create(ConfigListComponent.this.configHandler.getTooltip(name)));
-				}, Component::literal);
-			} else if (value instanceof Number number)
-			{
-				inputWidget = createNumbersTextBox(ConfigListComponent.this.minecraft.font, 0, 0, 100, 20, Component.literal(name), number.getClass());
-				((EditBox) inputWidget).setValue(value.toString());
-			} else
-			{
-				String[] items = options.options();
-				if (items.length > 0)
-				{
-					inputWidget = createCycleButton(Component.literal(name), 0, 0, 100, 20, value.toString(), items, Component.empty(), val ->
-					{
-						this.value = val;
-						if (inputWidget != null)
-							inputWidget.setTooltip(Tooltip.create(ConfigListComponent.this.configHandler.getTooltip(name)));
-					}, Component::literal);
-				} else
-				{
-					inputWidget = createTextBox(ConfigListComponent.this.minecraft.font, 0, 0, 100, 20, Component.literal(name));
-					((EditBox) inputWidget).setValue(value.toString());
-				}
-			}
-			inputWidget.setTooltip(Tooltip.create(ConfigListComponent.this.configHandler.getTooltip(name)));
+			// values added to a collection have no default, they reset to what they were when the screen opened
+			this.initial = Objects.requireNonNullElse(ConfigListComponent.this.configHandler.getInitial(name), value);
+			this.initialText = initial.toString();
+			this.displayName = ConfigListComponent.this.configHandler.getFieldDisplayName(name);
+			show(value);
 		}
 		
 		@Override
 		public void render(@NotNull GuiGraphics graphics, int x, int y, int uk, int widgetWidth, int widgetHeight, int mouseX, int mouseY, boolean isHovering, float partialTicks)
 		{
-			update();
+			if (slot == null)
+			{
+				slot = acquire(this);
+				slot.bind(this);
+			}
+			renderedFrame = ConfigListComponent.this.frame;
+			if (invalid && !slot.editBox.isFocused())
+			{
+				reset();
+			}
 			int parentWidth = ConfigListComponent.this.width;
 			if (isHovering)
 			{
@@ -154,11 +316,12 @@ public class ConfigListComponent extends ContainerObjectSelectionList<ConfigList
 			graphics.drawString(ConfigListComponent.this.minecraft.font, this.displayName, ConfigListComponent.this.x0 + 20, y + minecraft.font.lineHeight, 0xFF_FF_FF);
 			
 			// Render Buttons
+			Button resetButton = slot.resetButton;
+			AbstractWidget inputWidget = slot.widgets.get(1);
 			int buttonPadding = 4;
 			resetButton.setX(widgetWidth - resetButton.getWidth() + buttonPadding);
 			resetButton.setY(y + (widgetHeight / 2) - (resetButton.getHeight() / 2));
 			resetButton.render(graphics, mouseX, mouseY, partialTicks);
-			resetButton.active = !Objects.requireNonNull(ConfigListComponent.this.configHandler.getInitial(name)).toString().equalsIgnoreCase(value.toString());
 			resetButton.setFocused(false);
 			
 			inputWidget.setX(resetButton.getX() - inputWidget.getWidth() - buttonPadding);
@@ -169,114 +332,161 @@ public class ConfigListComponent extends ContainerObjectSelectionList<ConfigList
 		@Override
 		public @NotNull List<? extends NarratableEntry> narratables()
 		{
-			return ImmutableList.of(resetButton, inputWidget);
+			return slot == null ? List.of() : slot.widgets;
 		}
 		
 		@Override
 		public @NotNull List<? extends GuiEventListener> children()
 		{
-			return ImmutableList.of(resetButton, inputWidget);
+			return slot == null ? List.of() : slot.widgets;
 		}
 		
-		public void save()
+		public void save(ConfigTransaction transaction)
 		{
-			update();
-			ConfigListComponent.this.configHandler.set(name, value);
+			transaction.set(name, value);
 		}
 		
-		private void update()
+		/**
+		 * Checks if the value differs from the one in the config, only those are saved
+		 */
+		private boolean isEdited()
 		{
-			if (value instanceof Boolean && inputWidget instanceof CycleButton cycleButton)
+			return !Objects.equals(value, ConfigListComponent.this.configHandler.get(name));
+		}
+		
+		/**
+		 * Releases the widgets of this row, text that is still invalid is dropped
+		 *
+		 * @return the released slot
+		 */
+		private Slot unbind()
+		{
+			Slot released = Objects.requireNonNull(slot);
+			setFocused(null);
+			released.unbind();
+			slot = null;
+			if (invalid)
 			{
-				value = Boolean.valueOf(cycleButton.getValue().toString());
-			} else if (value instanceof Number && inputWidget instanceof EditBox editBox)
+				show(value);
+			}
+			return released;
+		}
+		
+		/**
+		 * Gets the tooltip of this row, it is only created again once the handler's tooltip changed, which it does when the value is saved
+		 */
+		private Tooltip getTooltip()
+		{
+			Component text = ConfigListComponent.this.configHandler.getTooltip(name);
+			if (tooltip == null || !text.equals(tooltipText))
 			{
-				
-				if (editBox.getValue().isEmpty())
-				{
-					if (!editBox.isFocused())
-						reset();
-				} else
-				{
-					if (value instanceof Number)
-					{
-						if (!editBox.isFocused())
-						{
-							double number = Double.parseDouble(editBox.getValue());
-							if (number > options.max() || number < options.min())
-							{
-								reset();
-							}
-						}
-						if (value instanceof Integer)
-						{
-							value = (int) Double.parseDouble(editBox.getValue());
-						} else if (value instanceof Float)
-						{
-							value = Float.parseFloat(editBox.getValue());
-						} else if (value instanceof Double)
-						{
-							value = Double.parseDouble(editBox.getValue());
-						} else if (value instanceof Long)
-						{
-							value = (long) Double.parseDouble(editBox.getValue());
-						}
-					}
-				}
-			} else if (value instanceof String)
+				tooltip = Tooltip.create(text);
+				tooltipText = text;
+			}
+			return tooltip;
+		}
+		
+		private boolean isCycled()
+		{
+			return value instanceof Boolean || options.options().length > 0;
+		}
+		
+		/**
+		 * Moves a cycled entry to the next or previous of its values
+		 */
+		private void cycle(boolean backwards)
+		{
+			String[] values = value instanceof Boolean ? BOOLEAN_VALUES : options.options();
+			int index = 0;
+			for (int i = 0; i < values.length; i++)
 			{
-				if (inputWidget instanceof CycleButton cycleButton)
+				if (values[i].equalsIgnoreCase(text))
 				{
-					value = cycleButton.getValue().toString();
-				} else if (inputWidget instanceof EditBox editBox)
-				{
-					value = editBox.getValue();
+					index = i;
+					break;
 				}
 			}
+			index = Math.floorMod(index + (backwards ? -1 : 1), values.length);
+			show(value instanceof Boolean ? Boolean.valueOf(values[index]) : values[index]);
 		}
 		
-		public void reset()
+		/**
+		 * Called when the text of the bound text box changes, number values only follow text that parses and is in range
+		 */
+		private void onTextChanged(String text)
 		{
-			Object initial = ConfigListComponent.this.configHandler.getInitial(name);
-			assert initial != null;
-			if (inputWidget instanceof CycleButton cycleButton)
+			this.text = text;
+			if (!(value instanceof Number))
 			{
-				if (value instanceof Boolean)
-				{
-					cycleButton.setValue(initial.toString().toUpperCase());
-				} else
-				{
-					cycleButton.setValue(initial.toString());
-				}
-			} else if (inputWidget instanceof EditBox editBox)
+				setValue(text);
+				return;
+			}
+			double number;
+			try
+			{
+				number = Double.parseDouble(text);
+			} catch (NumberFormatException e)
+			{
+				// empty, the filter rejects everything else that does not parse
+				invalid = true;
+				return;
+			}
+			invalid = number > options.max() || number < options.min();
+			if (invalid)
+			{
+				return;
+			}
+			if (value instanceof Integer)
+			{
+				setValue((int) number);
+			} else if (value instanceof Float)
 			{
-				editBox.setValue(initial.toString());
+				setValue(Float.parseFloat(text));
+			} else if (value instanceof Double)
+			{
+				setValue(number);
+			} else if (value instanceof Long)
+			{
+				setValue((long) number);
 			}
 		}
 		
-		public void refreshEntry()
+		private void setValue(Object value)
+		{
+			this.value = value;
+			this.modified = !initialText.equalsIgnoreCase(value.toString());
+			if (slot != null)
+			{
+				slot.resetButton.active = modified;
+			}
+		}
+		
+		/**
+		 * Sets the value and the text shown for it, and updates the widgets if the row is visible
+		 */
+		private void show(Object value)
+		{
+			setValue(value);
+			text = value instanceof Boolean ? value.toString().toUpperCase() : value.toString();
+			invalid = false;
+			if (slot != null)
+			{
+				slot.show();
+			}
+		}
+		
+		public void reset()
 		{
-			value = ConfigListComponent.this.configHandler.get(name);
+			show(initial);
 		}
 		
-		private Component getDisplayName()
+		public void refreshEntry()
 		{
-			
-			SimpleConfig options = ConfigListComponent.this.configHandler.getConfigOptions(name);
-			assert options != null;
-			if (!options.displayName().isEmpty())
-				return Component.literal(options.displayName());
-			StringBuilder builder = new StringBuilder();
-			for (int i = 0; i < name.length(); i++)
+			Object current = ConfigListComponent.this.configHandler.get(name);
+			if (current != null)
 			{
-				char c = name.charAt(i);
-				if (Character.isUpperCase(c))
-				{
-					builder.append(' ');
-				}
-				builder.append(c);
+				show(current);
 			}
-			return Component.literal(builder.toString().trim());
 		}
 	}
 }
@@ -3,6 +3,8 @@ package chase.minecraft.architectury.simplemodconfig.client.gui.component;
 import chase.minecraft.architectury.simplemodconfig.client.gui.screen.ModsConfigListScreen;
 import chase.minecraft.architectury.simplemodconfig.handlers.ConfigHandler;
 import chase.minecraft.architectury.simplemodconfig.handlers.LoadedConfigs;
+import chase.minecraft.architectury.simplemodconfig.search.SearchIndex;
+import chase.minecraft.architectury.simplemodconfig.search.SettingIndex;
 import com.mojang.blaze3d.platform.InputConstants;
 import com.mojang.blaze3d.systems.RenderSystem;
 import net.fabricmc.api.EnvType;
@@ -13,22 +15,35 @@ import net.minecraft.client.gui.components.ContainerObjectSelectionList;
 import net.minecraft.client.gui.components.events.GuiEventListener;
 import net.minecraft.client.gui.narration.NarratableEntry;
 import net.minecraft.client.resources.sounds.SimpleSoundInstance;
+import net.minecraft.network.chat.Component;
 import net.minecraft.sounds.SoundEvents;
 import org.jetbrains.annotations.NotNull;
 
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 @Environment(EnvType.CLIENT)
 public class ModConfigListComponent extends ContainerObjectSelectionList<ModConfigListComponent.Entry>
 {
 	private final ModsConfigListScreen parent;
+	// enough to fill the list a few times, a more specific query narrows it down
+	private static final int MAX_SETTINGS = 200;
+	private final SearchIndex<LoadedModEntry> index;
+	private final Map<SettingIndex.Setting, SettingEntry> settingEntries = new HashMap<>();
 	
 	public ModConfigListComponent(ModsConfigListScreen parent)
 	{
 		super(Minecraft.getInstance(), 150, parent.height, 30, parent.height - 32, 30);
 		this.parent = parent;
-		search("");
+		// one entry per registered config, searching only changes which of them are shown
+		List<LoadedModEntry> entries = new ArrayList<>(LoadedConfigs.getInstance().size());
+		LoadedConfigs.getInstance().get().forEach(item -> entries.add(new LoadedModEntry(item.getKey(), item.getValue())));
+		this.index = new SearchIndex<>(entries, entry -> entry.name);
+		replaceEntries(Collections.unmodifiableList(entries));
+		refreshEntries();
 	}
 	
 	@Override
@@ -48,17 +63,38 @@ public class ModConfigListComponent extends ContainerObjectSelectionList<ModConf
 		children().forEach(Entry::refreshEntry);
 	}
 	
+	/**
+	 * Shows the mods whose name contains the query, ignoring case
+	 *
+	 * @param query the search text
+	 */
 	public void search(String query)
 	{
-		clearEntries();
-		LoadedConfigs.getInstance().get().forEach((item) ->
+		replaceEntries(Collections.unmodifiableList(index.search(query)));
+		refreshEntries();
+	}
+	
+	/**
+	 * Shows the settings of every mod matching the query, see {@link SettingIndex#search(String, int)}. A blank query shows the mods again.
+	 *
+	 * @param query the search text
+	 */
+	public void searchSettings(String query)
+	{
+		if (query.isBlank())
 		{
-			if (query.isEmpty() || item.getKey().toLowerCase().contains(query.toLowerCase()))
-			{
-				addEntry(new LoadedModEntry(item.getKey(), item.getValue()));
-			}
-		});
+			search("");
+			return;
+		}
+		List<SettingIndex.Setting> settings = LoadedConfigs.getInstance().getSettingIndex().search(query, MAX_SETTINGS);
+		List<Entry> entries = new ArrayList<>(settings.size());
+		for (SettingIndex.Setting setting : settings)
+		{
+			entries.add(settingEntries.computeIfAbsent(setting, SettingEntry::new));
+		}
+		replaceEntries(entries);
 		refreshEntries();
+		setScrollAmount(0);
 	}
 	
 	@Environment(EnvType.CLIENT)
@@ -124,4 +160,66 @@ public class ModConfigListComponent extends ContainerObjectSelectionList<ModConf
 		
 		}
 	}
+	
+	/**
+	 * A setting found by the settings search, clicking it opens the config of its mod at the setting
+	 */
+	public class SettingEntry extends Entry
+	{
+		private final SettingIndex.Setting setting;
+		private final Component displayName;
+		private boolean isHovering = false;
+		
+		public SettingEntry(SettingIndex.Setting setting)
+		{
+			this.setting = setting;
+			this.displayName = setting.handler().getFieldDisplayName(setting.field().getName());
+		}
+		
+		@Override
+		public void render(@NotNull GuiGraphics graphics, int x, int y, int uk, int widgetWidth, int widgetHeight, int mouseX, int mouseY, boolean isHovering, float partialTicks)
+		{
+			int parentWidth = ModConfigListComponent.this.width;
+			this.isHovering = isHovering;
+			if (isHovering)
+			{
+				RenderSystem.setShaderColor(0f, 0f, 0f, .5f);
+				graphics.fill(x, y, x + parentWidth, y + widgetHeight, 0xFF_FF_FF_FF);
+				RenderSystem.setShaderColor(1f, 1f, 1f, 1f);
+			}
+			
+			// Render Label with the mod below it
+			graphics.drawString(ModConfigListComponent.this.minecraft.font, this.displayName, 5, y + 4, 0xFF_FF_FF);
+			graphics.drawString(ModConfigListComponent.this.minecraft.font, setting.mod(), 5, y + 6 + minecraft.font.lineHeight, 0xA0_A0_A0);
+		}
+		
+		@Override
+		public boolean mouseClicked(double x, double y, int mouseButton)
+		{
+			if (isHovering && mouseButton == InputConstants.MOUSE_BUTTON_LEFT)
+			{
+				ModConfigListComponent.this.parent.focus(setting.mod(), setting.handler(), setting.field().getName());
+				Minecraft.getInstance().getSoundManager().play(SimpleSoundInstance.forUI(SoundEvents.UI_BUTTON_CLICK, 1.0f));
+			}
+			return super.mouseClicked(x, y, mouseButton);
+		}
+		
+		@Override
+		public @NotNull List<? extends NarratableEntry> narratables()
+		{
+			return new ArrayList<>();
+		}
+		
+		@Override
+		public @NotNull List<? extends GuiEventListener> children()
+		{
+			return new ArrayList<>();
+		}
+		
+		@Override
+		public void refreshEntry()
+		{
+		
+		}
+	}
 }
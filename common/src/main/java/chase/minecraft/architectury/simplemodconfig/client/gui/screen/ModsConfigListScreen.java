@@ -6,7 +6,9 @@ import chase.minecraft.architectury.simplemodconfig.handlers.ConfigHandler;
 import chase.minecraft.architectury.simplemodconfig.handlers.LoadedConfigs;
 import net.minecraft.client.Minecraft;
 import net.minecraft.client.gui.GuiGraphics;
+import net.minecraft.client.gui.components.Button;
 import net.minecraft.client.gui.components.EditBox;
+import net.minecraft.client.gui.components.Tooltip;
 import net.minecraft.client.gui.screens.Screen;
 import net.minecraft.network.chat.CommonComponents;
 import net.minecraft.network.chat.Component;
@@ -26,6 +28,10 @@ public class ModsConfigListScreen extends Screen
 	private String loadedConfigName = "";
 	private EditBox searchBox;
 	private ModConfigListComponent modList;
+	// searches the settings of every mod instead of the mod names
+	private boolean searchSettings;
+	// the latest search text not yet applied, searches run at most once per frame
+	private @Nullable String pendingSearch;
 	
 	public ModsConfigListScreen()
 	{
@@ -51,7 +57,16 @@ public class ModsConfigListScreen extends Screen
 			assert minecraft != null;
 			minecraft.setScreen(parent);
 		}));
-		searchBox = addRenderableWidget(createTextBox(Minecraft.getInstance().font, 5, 5, 140, 20, Component.empty()));
+		searchBox = addRenderableWidget(createTextBox(Minecraft.getInstance().font, 5, 5, 116, 20, Component.empty()));
+		searchBox.setResponder(query -> pendingSearch = query);
+		Button searchMode = addRenderableWidget(createButton(125, 5, 20, 20, searchModeLabel(), button ->
+		{
+			searchSettings = !searchSettings;
+			button.setMessage(searchModeLabel());
+			button.setTooltip(Tooltip.create(searchModeTooltip()));
+			pendingSearch = searchBox.getValue();
+		}));
+		searchMode.setTooltip(Tooltip.create(searchModeTooltip()));
 		if (LoadedConfigs.getInstance().size() > 0)
 		{
 			Optional<Map.Entry<String, ConfigHandler<?>>> first = LoadedConfigs.getInstance().get().stream().findFirst();
@@ -78,9 +93,46 @@ public class ModsConfigListScreen extends Screen
 		return this.loadedConfigName.equals(name);
 	}
 	
+	/**
+	 * Shows a setting found by the settings search, loading its config first if another one is shown
+	 *
+	 * @param name          the display name of the mod
+	 * @param configHandler the config handler of the mod
+	 * @param field         the field name of the setting
+	 */
+	public void focus(String name, ConfigHandler<?> configHandler, String field)
+	{
+		if (!isLoaded(name) || configListComponent == null)
+		{
+			load(name, configHandler);
+		}
+		configListComponent.focusEntry(field);
+	}
+	
+	private Component searchModeLabel()
+	{
+		return Component.translatable(searchSettings ? "simplemodconfig.gui.search.settings" : "simplemodconfig.gui.search.mods");
+	}
+	
+	private Component searchModeTooltip()
+	{
+		return Component.translatable(searchSettings ? "simplemodconfig.gui.search.settings.tooltip" : "simplemodconfig.gui.search.mods.tooltip");
+	}
+	
 	@Override
 	public void render(GuiGraphics graphics, int i, int j, float f)
 	{
+		if (pendingSearch != null)
+		{
+			if (searchSettings)
+			{
+				modList.searchSettings(pendingSearch);
+			} else
+			{
+				modList.search(pendingSearch);
+			}
+			pendingSearch = null;
+		}
 		if (searchBox.getValue().isEmpty())
 		{
 			searchBox.setSuggestion("Search");
@@ -110,10 +162,6 @@ public class ModsConfigListScreen extends Screen
 	@Override
 	public boolean charTyped(char c, int i)
 	{
-		if (searchBox.isFocused())
-		{
-			modList.search(searchBox.getValue());
-		}
 		if (configListComponent != null)
 		{
 			configListComponent.charTyped(c, i);
@@ -124,10 +172,6 @@ public class ModsConfigListScreen extends Screen
 	@Override
 	public boolean keyPressed(int i, int j, int k)
 	{
-		if (searchBox.isFocused())
-		{
-			modList.search(searchBox.getValue());
-		}
 		if (configListComponent != null)
 		{
 			configListComponent.keyPressed(i, j, k);
@@ -138,10 +182,6 @@ public class ModsConfigListScreen extends Screen
 	@Override
 	public boolean keyReleased(int i, int j, int k)
 	{
-		if (searchBox.isFocused())
-		{
-			modList.search(searchBox.getValue());
-		}
 		if (configListComponent != null)
 		{
 			configListComponent.keyReleased(i, j, k);
@@ -6,4 +6,10 @@ public class SimpleModConfigConfig
 {
 	@SimpleConfig(displayName = "Show Button", description = "If the config button should be shown on the title screen")
 	public boolean ShowTitleScreenButton = true;
+	
+	@SimpleConfig(index = 1, displayName = "Hot Reload", description = "If config files edited on disk should be reloaded automatically, takes effect after a restart")
+	public boolean HotReload = true;
+	
+	@SimpleConfig(index = 2, displayName = "Parallel Loading", description = "If lazily loaded config files should be loaded in parallel during startup instead of on first use, this loads every lazy config even if it is never used")
+	public boolean ParallelLoading = false;
 }
@@ -1,8 +1,15 @@
 package chase.minecraft.architectury.simplemodconfig.handlers;
 
 import chase.minecraft.architectury.simplemodconfig.annotation.SimpleConfig;
+import chase.minecraft.architectury.simplemodconfig.jfr.ConfigReloadEvent;
+import chase.minecraft.architectury.simplemodconfig.keys.*;
+import chase.minecraft.architectury.simplemodconfig.metrics.ConfigMetrics;
+import chase.minecraft.architectury.simplemodconfig.metrics.LatencyHistogram;
+import chase.minecraft.architectury.simplemodconfig.schema.ConfigField;
+import chase.minecraft.architectury.simplemodconfig.schema.ConfigPath;
 import com.mojang.brigadier.CommandDispatcher;
 import com.mojang.brigadier.builder.LiteralArgumentBuilder;
+import com.mojang.brigadier.context.CommandContext;
 import net.minecraft.ChatFormatting;
 import net.minecraft.commands.CommandSourceStack;
 import net.minecraft.commands.SharedSuggestionProvider;
@@ -12,7 +19,10 @@ import net.minecraft.network.chat.HoverEvent;
 import net.minecraft.network.chat.MutableComponent;
 import org.jetbrains.annotations.Nullable;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 import static com.mojang.brigadier.arguments.BoolArgumentType.bool;
 import static com.mojang.brigadier.arguments.BoolArgumentType.getBool;
@@ -26,6 +36,7 @@ import static com.mojang.brigadier.arguments.LongArgumentType.getLong;
 import static com.mojang.brigadier.arguments.LongArgumentType.longArg;
 import static com.mojang.brigadier.arguments.StringArgumentType.getString;
 import static com.mojang.brigadier.arguments.StringArgumentType.greedyString;
+import static com.mojang.brigadier.arguments.StringArgumentType.string;
 import static net.minecraft.commands.Commands.argument;
 import static net.minecraft.commands.Commands.literal;
 
@@ -65,17 +76,26 @@ public class CommandHandler
 				.then(literal("reload")
 						.executes(context ->
 						{
-							configHandler.load();
+							ConfigReloadEvent event = new ConfigReloadEvent();
+							event.begin();
+							Set<String> changed = configHandler.reload();
+							event.report(configHandler.getName(), changed.size());
 							MutableComponent message = Component.literal("[");
 							message.append(displayName.copy());
-							message.append("] reloaded config");
+							message.append("] reloaded config, %d %s changed".formatted(changed.size(), changed.size() == 1 ? "value" : "values"));
 							context.getSource().sendSystemMessage(message);
 							return 1;
+						}))
+				.then(literal("stats")
+						.executes(context ->
+						{
+							context.getSource().sendSystemMessage(getStats());
+							return 1;
 						}));
 		
-		for (Map.Entry<String, Object> entry : configHandler.getAll().entrySet())
+		for (ConfigField field : configHandler.getSchema().fields())
 		{
-			cmd.then(getSubCommand(entry.getKey(), entry.getValue()));
+			cmd.then(field.isStructured() ? getSectionCommand(field.getName()) : getSubCommand(configHandler.key(field.getName())));
 		}
 		
 		
@@ -83,81 +103,164 @@ public class CommandHandler
 	}
 	
 	/**
-	 * This function builds a subcommand for a command with different argument types based on the type of the input value.
+	 * This function builds a subcommand for a command with different argument types based on the type of the config field.
+	 * Primitive fields are set through their typed {@link ConfigKey} so the argument is never boxed.
 	 *
-	 * @param name  The name of the subcommand being created.
-	 * @param value The value to be set for the configuration option. It can be a String, Boolean, Integer, Float, Double, or Long depending on the type of the configuration option.
-	 * @param sub   A LiteralArgumentBuilder object representing a subcommand that will be added to the main command.
-	 * @return The method is returning a LiteralArgumentBuilder object with sub-commands added based on the type of the value parameter.
+	 * @param key The typed handle of the configuration option. Its field can be a String, boolean, int, float, double, or long, or the boxed form of one.
+	 * @param sub A LiteralArgumentBuilder object representing a subcommand that will be added to the main command.
+	 * @return The method is returning a LiteralArgumentBuilder object with sub-commands added based on the type of the field.
 	 */
-	private LiteralArgumentBuilder<CommandSourceStack> getSubCommand(String name, Object value, LiteralArgumentBuilder<CommandSourceStack> sub)
+	private LiteralArgumentBuilder<CommandSourceStack> getSubCommand(ConfigKey key, LiteralArgumentBuilder<CommandSourceStack> sub)
 	{
-		SimpleConfig options = configHandler.getConfigOptions(name);
-		assert options != null;
-		if (value instanceof String)
+		String name = key.getName();
+		SimpleConfig options = key.getOptions();
+		if (key.getField().getType() == String.class)
 		{
 			if (options.options().length > 0)
 			{
 				sub = sub
 						.then(argument("value", greedyString())
 								.suggests(((context, builder) -> SharedSuggestionProvider.suggest(options.options(), builder)))
-								.executes(ctx ->
-								{
-									configHandler.set(name, getString(ctx, "value"));
-									return 1;
-								}));
+								.executes(ctx -> set(ctx, name, () -> key.setValue(getString(ctx, "value")))));
 			} else
 			{
 				sub = sub
 						.then(argument("value", greedyString())
-								.executes(ctx ->
-								{
-									configHandler.set(name, getString(ctx, "value"));
-									return 1;
-								}));
+								.executes(ctx -> set(ctx, name, () -> key.setValue(getString(ctx, "value")))));
 			}
-		} else if (value instanceof Boolean)
+		} else if (key instanceof BooleanKey booleanKey)
 		{
-			sub = sub.then(argument("value", bool()).executes(ctx ->
-			{
-				configHandler.set(name, getBool(ctx, "value"));
-				return 1;
-			}));
-		} else if (value instanceof Integer)
+			sub = sub.then(argument("value", bool()).executes(ctx -> set(ctx, name, () -> booleanKey.setBoolean(getBool(ctx, "value")))));
+		} else if (key instanceof IntKey intKey)
 		{
-			sub = sub.then(argument("value", integer((int) options.min(), (int) options.max())).executes(ctx ->
-			{
-				configHandler.set(name, getInteger(ctx, "value"));
-				return 1;
-			}));
-		} else if (value instanceof Float)
+			sub = sub.then(argument("value", integer((int) options.min(), (int) options.max())).executes(ctx -> set(ctx, name, () -> intKey.setInt(getInteger(ctx, "value")))));
+		} else if (key instanceof FloatKey floatKey)
 		{
-			sub = sub.then(argument("value", floatArg((float) options.min(), (float) options.max())).executes(ctx ->
-			{
-				configHandler.set(name, getFloat(ctx, "value"));
-				return 1;
-			}));
-		} else if (value instanceof Double)
+			sub = sub.then(argument("value", floatArg((float) options.min(), (float) options.max())).executes(ctx -> set(ctx, name, () -> floatKey.setFloat(getFloat(ctx, "value")))));
+		} else if (key instanceof DoubleKey doubleKey)
 		{
-			sub = sub.then(argument("value", doubleArg(options.min(), options.max())).executes(ctx ->
-			{
-				configHandler.set(name, getDouble(ctx, "value"));
-				return 1;
-			}));
-		} else if (value instanceof Long)
+			sub = sub.then(argument("value", doubleArg(options.min(), options.max())).executes(ctx -> set(ctx, name, () -> doubleKey.setDouble(getDouble(ctx, "value")))));
+		} else if (key instanceof LongKey longKey)
 		{
-			sub = sub.then(argument("value", longArg((long) options.min(), (long) options.max())).executes(ctx ->
-			{
-				configHandler.set(name, getLong(ctx, "value"));
-				return 1;
-			}));
+			sub = sub.then(argument("value", longArg((long) options.min(), (long) options.max())).executes(ctx -> set(ctx, name, () -> longKey.setLong(getLong(ctx, "value")))));
+		} else if (key.getField().getType() == Boolean.class)
+		{
+			// boxed fields get an ObjectKey, they take the same arguments as their primitives
+			sub = sub.then(argument("value", bool()).executes(ctx -> set(ctx, name, () -> key.setValue(getBool(ctx, "value")))));
+		} else if (key.getField().getType() == Integer.class)
+		{
+			sub = sub.then(argument("value", integer((int) options.min(), (int) options.max())).executes(ctx -> set(ctx, name, () -> key.setValue(getInteger(ctx, "value")))));
+		} else if (key.getField().getType() == Float.class)
+		{
+			sub = sub.then(argument("value", floatArg((float) options.min(), (float) options.max())).executes(ctx -> set(ctx, name, () -> key.setValue(getFloat(ctx, "value")))));
+		} else if (key.getField().getType() == Double.class)
+		{
+			sub = sub.then(argument("value", doubleArg(options.min(), options.max())).executes(ctx -> set(ctx, name, () -> key.setValue(getDouble(ctx, "value")))));
+		} else if (key.getField().getType() == Long.class)
+		{
+			sub = sub.then(argument("value", longArg((long) options.min(), (long) options.max())).executes(ctx -> set(ctx, name, () -> key.setValue(getLong(ctx, "value")))));
 		}
 		return sub;
 	}
 	
-	private LiteralArgumentBuilder<CommandSourceStack> getSubCommand(String name, Object value)
+	private LiteralArgumentBuilder<CommandSourceStack> getSubCommand(ConfigKey key)
+	{
+		return getSubCommand(key, literal(key.getName()));
+	}
+	
+	/**
+	 * Builds the subcommand of a section or collection field, {@code /<cmd> <field>} shows the whole field as JSON,
+	 * {@code /<cmd> <field> <path>} shows the value at a path inside it and {@code /<cmd> <field> <path> <value>} sets that value, only that part of the field is changed.
+	 * The path is relative to the field, dotted or, quoted, a JSON pointer. The value is parsed as JSON unless the path holds a String.
+	 *
+	 * @param name the name of the field
+	 * @return the subcommand
+	 */
+	private LiteralArgumentBuilder<CommandSourceStack> getSectionCommand(String name)
 	{
-		return getSubCommand(name, value, literal(name));
+		return literal(name)
+				.executes(ctx ->
+				{
+					ctx.getSource().sendSystemMessage(get(name));
+					return 1;
+				})
+				.then(argument("path", string())
+						.suggests((context, builder) -> SharedSuggestionProvider.suggest(getPaths(name), builder))
+						.executes(ctx ->
+						{
+							String path = getPath(ctx, name);
+							if (path == null)
+								return 0;
+							ctx.getSource().sendSystemMessage(get(path));
+							return 1;
+						})
+						.then(argument("value", greedyString())
+								.executes(ctx ->
+								{
+									String path = getPath(ctx, name);
+									return path == null ? 0 : set(ctx, path, () -> configHandler.edit(transaction -> transaction.set(path, getString(ctx, "value"))));
+								})));
+	}
+	
+	/**
+	 * Resolves the path argument against the field it belongs to
+	 *
+	 * @return the full path, or null if the path is malformed, which has been reported to the command source
+	 */
+	private @Nullable String getPath(CommandContext<CommandSourceStack> context, String name)
+	{
+		try
+		{
+			return ConfigPath.of(name).resolve(getString(context, "path")).toString();
+		} catch (IllegalArgumentException e)
+		{
+			context.getSource().sendFailure(Component.literal(e.getMessage()));
+			return null;
+		}
+	}
+	
+	/**
+	 * Gets the paths of the values inside a field relative to the field, JSON pointers are quoted as they can not be typed unquoted
+	 *
+	 * @param name the name of the field
+	 * @return the relative paths
+	 */
+	private List<String> getPaths(String name)
+	{
+		List<String> paths = new ArrayList<>();
+		for (String path : configHandler.getLeaves().keySet())
+		{
+			if (path.startsWith(name + "."))
+			{
+				paths.add(path.substring(name.length() + 1));
+			} else if (path.startsWith("/" + name + "/"))
+			{
+				paths.add('"' + path.substring(name.length() + 1).replace("\\", "\\\\").replace("\"", "\\\"") + '"');
+			}
+		}
+		return paths;
+	}
+	
+	/**
+	 * Runs a write to a config option and reports the new value, or why it was rejected, back to the command source.
+	 *
+	 * @param context The command context.
+	 * @param name    The name of the config option.
+	 * @param write   Writes the new value, throws an IllegalArgumentException if the value is invalid.
+	 * @return 1 if the value was set, 0 otherwise
+	 */
+	private int set(CommandContext<CommandSourceStack> context, String name, Runnable write)
+	{
+		try
+		{
+			write.run();
+		} catch (IllegalArgumentException e)
+		{
+			context.getSource().sendFailure(Component.literal(e.getMessage()));
+			return 0;
+		}
+		context.getSource().sendSystemMessage(get(name));
+		return 1;
 	}
 	
 	/**
@@ -182,6 +285,37 @@ public class CommandHandler
 		return component;
 	}
 	
+	/**
+	 * Builds the stats message, the metrics of this config followed by the totals of every registered config
+	 *
+	 * @return the stats component
+	 */
+	public Component getStats()
+	{
+		MutableComponent component = displayName.copy();
+		component.append(" %sStats:%s".formatted(ChatFormatting.AQUA, ChatFormatting.RESET));
+		appendStats(component, configHandler.getMetrics());
+		component.append("\n%sAll Mods (%d):%s".formatted(ChatFormatting.AQUA, LoadedConfigs.getInstance().size(), ChatFormatting.RESET));
+		appendStats(component, LoadedConfigs.getInstance().getMetrics());
+		return component;
+	}
+	
+	private static void appendStats(MutableComponent component, ConfigMetrics metrics)
+	{
+		appendTiming(component, "loads", metrics.getLoads());
+		appendTiming(component, "saves", metrics.getSaves());
+		component.append("\n%swrites: %s%d%s".formatted(ChatFormatting.GOLD, ChatFormatting.GREEN, metrics.getWrites(), ChatFormatting.RESET));
+		appendTiming(component, "sets", metrics.getSets());
+		component.append("\n%sget misses: %s%d%s".formatted(ChatFormatting.GOLD, ChatFormatting.GREEN, metrics.getGetMisses(), ChatFormatting.RESET));
+		ChatFormatting failures = metrics.getParseFailures() > 0 ? ChatFormatting.RED : ChatFormatting.GREEN;
+		component.append("\n%sparse failures: %s%d%s".formatted(ChatFormatting.GOLD, failures, metrics.getParseFailures(), ChatFormatting.RESET));
+	}
+	
+	private static void appendTiming(MutableComponent component, String name, LatencyHistogram histogram)
+	{
+		component.append("\n%s%s: %s%d %s(mean %.3f ms, p99 < %.3f ms)%s".formatted(ChatFormatting.GOLD, name, ChatFormatting.GREEN, histogram.getCount(), ChatFormatting.GRAY, histogram.getMeanNanos() / 1e6, histogram.getPercentileNanos(0.99) / 1e6, ChatFormatting.RESET));
+	}
+	
 	/**
 	 * This function returns a component with a formatted string based on the value retrieved from a config handler.
 	 *
@@ -203,6 +337,9 @@ public class CommandHandler
 				{
 					component.append(ChatFormatting.RED + "FALSE" + ChatFormatting.RESET);
 				}
+			} else if (ConfigField.isStructured(value.getClass()))
+			{
+				component.append(ChatFormatting.GREEN + configHandler.toJson(name) + ChatFormatting.RESET);
 			} else
 			{
 				component.append(ChatFormatting.GREEN + value.toString() + ChatFormatting.RESET);
@@ -0,0 +1,69 @@
+package chase.minecraft.architectury.simplemodconfig.handlers;
+
+import net.minecraft.network.chat.Component;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Supplier;
+
+/**
+ * Caches one built Component per config field, indexed by {@link chase.minecraft.architectury.simplemodconfig.schema.ConfigField#getOrdinal()}.
+ * Entries are dropped when their field changes, and all entries of every cache go stale when the language changes.
+ */
+final class ComponentCache
+{
+	private static final AtomicInteger LANGUAGE = new AtomicInteger();
+	private final AtomicReferenceArray<Cached> entries;
+	
+	ComponentCache(int size)
+	{
+		entries = new AtomicReferenceArray<>(size);
+	}
+	
+	/**
+	 * Makes every cached component stale, they are rebuilt on their next use
+	 */
+	static void invalidateAll()
+	{
+		LANGUAGE.incrementAndGet();
+	}
+	
+	/**
+	 * Gets the cached component of a field or builds it.
+	 * Two threads may both build a missing entry, the components are equal so either one is kept.
+	 * A component is only stored if the entry was not replaced while it was built, so one built from a value that changed meanwhile is not kept.
+	 *
+	 * @param index   the field ordinal
+	 * @param builder builds the component
+	 * @return the component
+	 */
+	Component get(int index, Supplier<Component> builder)
+	{
+		int language = LANGUAGE.get();
+		Cached cached = entries.get(index);
+		if (cached != null && cached.component != null && cached.language == language)
+		{
+			return cached.component;
+		}
+		Component component = builder.get();
+		// an entry built while the language changed is stored with the old language, so it is rebuilt on the next use
+		entries.compareAndSet(index, cached, new Cached(component, language));
+		return component;
+	}
+	
+	/**
+	 * Drops the cached component of a field
+	 *
+	 * @param index the field ordinal
+	 */
+	void invalidate(int index)
+	{
+		// a new empty entry rather than null, so a build that started before this can not store its result over it
+		entries.set(index, new Cached(null, 0));
+	}
+	
+	private record Cached(@Nullable Component component, int language)
+	{
+	}
+}
@@ -0,0 +1,19 @@
+package chase.minecraft.architectury.simplemodconfig.handlers;
+
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * A listener that is notified once for every committed change of a config field, see {@link ConfigHandler#onChange(String, ConfigChangeListener)}.
+ */
+@FunctionalInterface
+public interface ConfigChangeListener
+{
+	/**
+	 * Called after the field was changed
+	 *
+	 * @param name     the name of the field that changed
+	 * @param oldValue the value before the change
+	 * @param newValue the value after the change
+	 */
+	void onChange(String name, @Nullable Object oldValue, @Nullable Object newValue);
+}
@@ -2,127 +2,994 @@ package chase.minecraft.architectury.simplemodconfig.handlers;
 
 import chase.minecraft.architectury.simplemodconfig.SimpleModConfig;
 import chase.minecraft.architectury.simplemodconfig.annotation.SimpleConfig;
+import chase.minecraft.architectury.simplemodconfig.io.ConfigCache;
+import chase.minecraft.architectury.simplemodconfig.io.ConfigWriter;
+import chase.minecraft.architectury.simplemodconfig.io.FsyncPolicy;
+import chase.minecraft.architectury.simplemodconfig.io.WriteBehindSaver;
+import chase.minecraft.architectury.simplemodconfig.jfr.*;
+import chase.minecraft.architectury.simplemodconfig.keys.*;
+import chase.minecraft.architectury.simplemodconfig.metrics.ConfigMetrics;
+import chase.minecraft.architectury.simplemodconfig.schema.ConfigCodec;
+import chase.minecraft.architectury.simplemodconfig.schema.ConfigField;
+import chase.minecraft.architectury.simplemodconfig.schema.ConfigNodes;
+import chase.minecraft.architectury.simplemodconfig.schema.ConfigPath;
+import chase.minecraft.architectury.simplemodconfig.schema.ConfigSchema;
 import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
+import com.google.gson.JsonParseException;
+import com.google.gson.JsonSyntaxException;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.MalformedJsonException;
 import dev.architectury.platform.Platform;
 import net.minecraft.ChatFormatting;
 import net.minecraft.network.chat.Component;
 import net.minecraft.network.chat.MutableComponent;
 import org.jetbrains.annotations.Nullable;
 
+import java.io.ByteArrayInputStream;
+import java.io.EOFException;
 import java.io.File;
-import java.io.FileReader;
-import java.io.FileWriter;
 import java.io.IOException;
-import java.lang.reflect.Field;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.lang.reflect.Type;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
 import java.nio.file.Path;
-import java.util.HashMap;
-import java.util.LinkedHashMap;
-import java.util.Objects;
+import java.util.*;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
 
 /**
  * The ConfigHandler class is a generic class that handles loading, saving, setting, and getting configuration data from a JSON file using the Gson library.
  */
 public class ConfigHandler<T>
 {
+	private static final Gson GSON = new GsonBuilder().setPrettyPrinting().disableHtmlEscaping().create();
+	/**
+	 * When this system property is true lazy handlers load during construction, so broken config files are reported at startup
+	 */
+	public static final String STRICT_PROPERTY = "simplemodconfig.strict";
 	public final File CONFIG_FILE;
 	private final String name;
 	private final T initialConfig;
+	private final ConfigSchema<T> schema;
 	private Component displayName;
 	private T config;
+	private volatile long writeBehindMillis = 0;
+	private final ConfigWriter writer;
+	private final ConfigCache cache;
+	private volatile boolean binaryCache;
+	private final AtomicReference<T> snapshot = new AtomicReference<>();
+	private volatile boolean snapshots = false;
+	private final ConfigListeners listeners;
+	private final ConfigMetrics metrics = new ConfigMetrics();
+	private final ComponentCache tooltips;
+	private final ComponentCache fieldNames;
+	private volatile boolean loaded = false;
+	private boolean loading = false;
 	
 	/**
 	 * Creates a new ConfigHandler object
 	 *
-	 * @param name          The name of the json file not including the .json
-	 * @param initialConfig The config's initial values.
+	 * @param name          The name of the json file not including the .json
+	 * @param initialConfig The config's initial values.
+	 */
+	public ConfigHandler(String name, T initialConfig)
+	{
+		this(name, initialConfig, false);
+	}
+	
+	/**
+	 * Creates a new ConfigHandler object.
+	 * A lazy handler does not touch the config file until the config is first read, edited or saved, unless the {@value #STRICT_PROPERTY} system property is set.
+	 *
+	 * @param name          The name of the json file not including the .json
+	 * @param initialConfig The config's initial values.
+	 * @param lazy          true to defer loading the file until first access
+	 */
+	@SuppressWarnings("unchecked")
+	public ConfigHandler(String name, T initialConfig, boolean lazy)
+	{
+		this.name = name;
+		CONFIG_FILE = Path.of(Platform.getConfigFolder().toString(), "%s.json".formatted(name)).toFile();
+		this.initialConfig = initialConfig;
+		this.schema = ConfigSchema.of((Class<T>) initialConfig.getClass());
+		this.writer = new ConfigWriter(CONFIG_FILE.toPath());
+		this.cache = new ConfigCache(CONFIG_FILE.toPath());
+		// the cache file only exists if the cache was enabled on an earlier run, so it can be used before the builder enables it again
+		this.binaryCache = cache.exists();
+		this.listeners = new ConfigListeners(schema);
+		this.tooltips = new ComponentCache(schema.size());
+		this.fieldNames = new ComponentCache(schema.size());
+		// the live config is a copy so reloads and edits never write into the initial values
+		this.config = copy(initialConfig);
+		if (!lazy || Boolean.getBoolean(STRICT_PROPERTY))
+		{
+			load();
+		}
+	}
+	
+	/**
+	 * Loads a configuration file using Gson library and saves an initial configuration if the file does not exist or cannot be parsed.
+	 */
+	public synchronized void load()
+	{
+		loading = true;
+		try
+		{
+			reload();
+		} finally
+		{
+			loading = false;
+			loaded = true;
+		}
+	}
+	
+	/**
+	 * Loads the config file if this is a lazy handler that was not loaded yet, this is called before every read and write.
+	 */
+	private void ensureLoaded()
+	{
+		if (!loaded)
+		{
+			synchronized (this)
+			{
+				// a listener reading the config while it is being loaded sees the values applied so far
+				if (!loaded && !loading)
+				{
+					load();
+				}
+			}
+		}
+	}
+	
+	/**
+	 * Checks if the config file has been loaded, lazy handlers load on first access
+	 *
+	 * @return true if the config file was loaded
+	 */
+	public boolean isLoaded()
+	{
+		return loaded;
+	}
+	
+	/**
+	 * Reloads the configuration file into the live config object.
+	 * The file is parsed into a scratch instance and only the fields that differ are written to the live object, so references returned by {@link #getConfig()} stay valid.
+	 *
+	 * @return the names of the fields that changed, in schema order
+	 */
+	public Set<String> reload()
+	{
+		try
+		{
+			if (!CONFIG_FILE.exists())
+				save(initialConfig);
+			long modified = lastModified();
+			return load(Files.readAllBytes(CONFIG_FILE.toPath()), modified);
+		} catch (IOException ignore)
+		{
+			if (!CONFIG_FILE.exists())
+			{
+				// whatever was last written is gone, so the defaults must not be skipped as unchanged
+				writer.invalidate();
+			}
+			return restoreDefaults();
+		}
+	}
+	
+	/**
+	 * Reloads the configuration file if its content differs from what this handler last wrote or read.
+	 * This is used by the {@link chase.minecraft.architectury.simplemodconfig.io.ConfigWatcher} so the library's own writes do not trigger a reload.
+	 *
+	 * @return the names of the fields that changed, empty if the file was unchanged
+	 */
+	public Set<String> reloadIfChanged()
+	{
+		if (!loaded)
+		{
+			// the first access reads the latest file anyway
+			return Set.of();
+		}
+		byte[] content;
+		long modified = lastModified();
+		try
+		{
+			content = Files.readAllBytes(CONFIG_FILE.toPath());
+		} catch (IOException e)
+		{
+			// the file was deleted or is being replaced, the next event will pick it up
+			if (!CONFIG_FILE.exists())
+			{
+				writer.invalidate();
+			}
+			return Set.of();
+		}
+		if (content.length == 0 || writer.matches(content))
+		{
+			return Set.of();
+		}
+		return load(content, modified);
+	}
+	
+	/**
+	 * Parses the raw content of the configuration file and applies it to the live config.
+	 * With the binary cache enabled the values are decoded from the cache when it matches the content, and the cache is rewritten after the JSON had to be parsed.
+	 *
+	 * @param content  the bytes of the config file
+	 * @param modified the modification time of the config file in milliseconds
+	 * @return the names of the fields that changed
+	 */
+	private Set<String> load(byte[] content, long modified)
+	{
+		ConfigLoadEvent event = new ConfigLoadEvent();
+		event.begin();
+		long start = System.nanoTime();
+		boolean fromCache = false;
+		try
+		{
+			byte[] hash = writer.remember(content);
+			if (binaryCache)
+			{
+				Object[] cached = cache.read(schema, content.length, modified, hash, GSON);
+				if (cached != null)
+				{
+					fromCache = true;
+					return apply(cached);
+				}
+			}
+			try (Reader reader = new InputStreamReader(new ByteArrayInputStream(content), StandardCharsets.UTF_8))
+			{
+				T loaded = parse(reader);
+				if (loaded == null)
+				{
+					SimpleModConfig.log.warn("Config file is empty: {}, writing defaults", CONFIG_FILE.getName());
+					return restoreDefaults();
+				}
+				if (binaryCache)
+				{
+					writeCache(loaded, content.length, modified, hash);
+				}
+				return apply(loaded);
+			} catch (ClassCastException e)
+			{
+				metrics.recordParseFailure();
+				SimpleModConfig.log.error("Unable to parse config file: {}", CONFIG_FILE.getName(), e);
+				return restoreDefaults();
+			} catch (JsonParseException e)
+			{
+				metrics.recordParseFailure();
+				throw e;
+			} catch (IOException e)
+			{
+				SimpleModConfig.log.error("Unable to read config file: {}", CONFIG_FILE.getName(), e);
+				return Set.of();
+			}
+		} finally
+		{
+			metrics.recordLoad(System.nanoTime() - start);
+			event.report(name, content.length, fromCache);
+		}
+	}
+	
+	/**
+	 * Parses a config file with the generated codec of the config class, or with Gson if there is none.
+	 * Both accept the same hand edited files, the codec reads leniently like {@link Gson#fromJson(Reader, Type)} does, so comments and single quotes are allowed.
+	 *
+	 * @param reader the config file content
+	 * @return the parsed config or null if the file is empty or holds only null
+	 * @throws IOException if the content could not be read
+	 */
+	private @Nullable T parse(Reader reader) throws IOException
+	{
+		ConfigCodec<T> codec = schema.getCodec();
+		if (codec == null)
+		{
+			return GSON.fromJson(reader, schema.getType());
+		}
+		JsonReader json = new JsonReader(reader);
+		json.setLenient(true);
+		try
+		{
+			if (json.peek() == JsonToken.NULL)
+			{
+				return null;
+			}
+		} catch (EOFException e)
+		{
+			// empty file
+			return null;
+		}
+		try
+		{
+			T config = codec.read(json, GSON);
+			if (json.peek() != JsonToken.END_DOCUMENT)
+			{
+				throw new JsonSyntaxException("JSON document was not fully consumed.");
+			}
+			return config;
+		} catch (MalformedJsonException | IllegalStateException | NumberFormatException e)
+		{
+			// reported the same way Gson reports a malformed file
+			throw new JsonSyntaxException(e);
+		}
+	}
+	
+	/**
+	 * Diffs a scratch config against the live config field by field and writes only the changed fields into the live config.
+	 *
+	 * @param source the scratch config
+	 * @return the names of the fields that changed, in schema order
+	 */
+	private Set<String> apply(T source)
+	{
+		Object[] values = new Object[schema.size()];
+		for (ConfigField field : schema.fields())
+		{
+			values[field.getOrdinal()] = field.get(source);
+		}
+		return apply(values);
+	}
+	
+	/**
+	 * Writes the values that differ from the live config into the live config.
+	 *
+	 * @param values the new field values indexed by {@link ConfigField#getOrdinal()}
+	 * @return the names of the fields that changed, in schema order
+	 */
+	private synchronized Set<String> apply(Object[] values)
+	{
+		Map<ConfigField, Object> previous = new LinkedHashMap<>();
+		for (ConfigField field : schema.fields())
+		{
+			Object value = values[field.getOrdinal()];
+			Object old = field.get(config);
+			if (!ConfigNodes.equal(old, value))
+			{
+				previous.put(field, update(field, old, value));
+			}
+		}
+		return changed(previous);
+	}
+	
+	/**
+	 * Writes a changed value into the live config. Sections and collections are changed in place, so references to them taken from {@link #getConfig()} stay current.
+	 *
+	 * @param field the field
+	 * @param old   the value of the field now
+	 * @param value the new value, a detached copy
+	 * @return the value from before the change for the listeners, a copy of it if it was changed in place and the field is listened to
+	 */
+	private @Nullable Object update(ConfigField field, @Nullable Object old, @Nullable Object value)
+	{
+		if (!field.isStructured())
+		{
+			field.set(config, value);
+			return old;
+		}
+		Object before = listeners.isListened(field) ? copy(field, old) : old;
+		if (!ConfigNodes.merge(old, value))
+		{
+			field.set(config, value);
+		}
+		return before;
+	}
+	
+	/**
+	 * Writes the initial values into the live config and saves it
+	 *
+	 * @return the names of the fields that changed
+	 */
+	private Set<String> restoreDefaults()
+	{
+		Set<String> changed = apply(copy(initialConfig));
+		save(config);
+		return changed;
+	}
+	
+	/**
+	 * Creates a detached copy of a config object
+	 *
+	 * @param source the config to copy
+	 * @return a new config object with the same values
+	 */
+	private T copy(T source)
+	{
+		return GSON.fromJson(GSON.toJsonTree(source), schema.getType());
+	}
+	
+	/**
+	 * Creates a detached copy of a field value, values that are not structured can not change and are returned as is
+	 *
+	 * @param field the field
+	 * @param value the value to copy
+	 * @return the copy
+	 */
+	private @Nullable Object copy(ConfigField field, @Nullable Object value)
+	{
+		if (value == null || !field.isStructured())
+		{
+			return value;
+		}
+		Type type = field.getField().getGenericType();
+		return GSON.fromJson(GSON.toJsonTree(value, type), type);
+	}
+	
+	/**
+	 * Saves a configuration object as a JSON file, the JSON is written to a temp file which then replaces the config file atomically.
+	 * Nothing is written if the JSON is identical to what was last written or read.
+	 *
+	 * @param config The parameter "config" is an object of type T, which is a generic type. The specific type of object being passed as "config" will depend on the context in which this method is being used. The method is designed to save the configuration data of an object to a file using the Gson
+	 */
+	private synchronized void save(T config)
+	{
+		ConfigSaveEvent event = new ConfigSaveEvent();
+		event.begin();
+		long start = System.nanoTime();
+		boolean written = false;
+		try
+		{
+			written = writer.write(schema, config, GSON);
+			if (written && binaryCache)
+			{
+				byte[] hash = writer.getLastHash();
+				if (hash != null)
+				{
+					writeCache(config, writer.getLastSize(), lastModified(), hash);
+				}
+			}
+		} catch (IOException | RuntimeException e)
+		{
+			SimpleModConfig.log.error("Unable to save config file: {}", CONFIG_FILE.getName(), e);
+		} finally
+		{
+			metrics.recordSave(System.nanoTime() - start, written);
+			event.report(name, Math.max(0, writer.getLastSize()), written);
+		}
+	}
+	
+	/**
+	 * Writes the binary cache for the given content of the config file, a failed write only costs a JSON parse on the next load.
+	 */
+	private void writeCache(T config, long size, long modified, byte[] hash)
+	{
+		try
+		{
+			cache.write(schema, config, size, modified, hash, GSON);
+		} catch (IOException | RuntimeException e)
+		{
+			SimpleModConfig.log.warn("Unable to write config cache: {}, {}", CONFIG_FILE.getName(), e.getMessage());
+			cache.delete();
+		}
+	}
+	
+	/**
+	 * Gets the modification time of the config file
+	 *
+	 * @return the modification time in milliseconds or -1 if the file can not be read
+	 */
+	private long lastModified()
+	{
+		try
+		{
+			return Files.getLastModifiedTime(CONFIG_FILE.toPath()).toMillis();
+		} catch (IOException e)
+		{
+			return -1;
+		}
+	}
+	
+	/**
+	 * Enables or disables the binary cache, see {@link ConfigCache}.
+	 * The cache is kept next to the config file, once it exists later runs read it before the builder enables it again. Disabling the cache deletes it.
+	 *
+	 * @param binaryCache true to cache parsed values in a binary file
+	 */
+	public synchronized void setBinaryCache(boolean binaryCache)
+	{
+		boolean created = binaryCache && !this.binaryCache;
+		this.binaryCache = binaryCache;
+		if (!binaryCache)
+		{
+			cache.delete();
+		} else if (created && loaded)
+		{
+			// rewrite the file once so the cache is created from content that is known to match it
+			writer.invalidate();
+			save(config);
+		}
+	}
+	
+	/**
+	 * Checks if the binary cache is enabled
+	 *
+	 * @return true if parsed values are cached in a binary file
+	 */
+	public boolean isBinaryCache()
+	{
+		return binaryCache;
+	}
+	
+	/**
+	 * Saves the current config to disk on the calling thread, any pending write-behind flush is dropped.
+	 * Every section is serialized again, so values changed in place through {@link #getConfig()} are saved as well.
+	 */
+	public void save()
+	{
+		ensureLoaded();
+		if (writeBehindMillis > 0)
+		{
+			WriteBehindSaver.getInstance().discard(this);
+		}
+		synchronized (this)
+		{
+			writer.changedAll();
+			save(config);
+		}
+	}
+	
+	/**
+	 * Writes the changes made through this handler, this is what the write-behind saver calls.
+	 * Unlike {@link #save()} only the sections that were changed through the handler are serialized again.
+	 */
+	public void flush()
+	{
+		ensureLoaded();
+		save(config);
+	}
+	
+	/**
+	 * Requests a save after a change, writes synchronously unless write-behind is enabled.
+	 */
+	private void requestSave()
+	{
+		if (writeBehindMillis > 0)
+		{
+			WriteBehindSaver.getInstance().markDirty(this, writeBehindMillis);
+		} else
+		{
+			save(config);
+		}
+	}
+	
+	/**
+	 * Enables or disables write-behind saving.
+	 * When enabled, {@link #set(String, Object)} only marks the config dirty and the file is written once per debounce window on the background I/O thread.
+	 *
+	 * @param debounceMillis the debounce window in milliseconds, 0 or less writes synchronously on every change
+	 */
+	public void setWriteBehind(long debounceMillis)
+	{
+		if (debounceMillis <= 0 && WriteBehindSaver.getInstance().isDirty(this))
+		{
+			save();
+		}
+		this.writeBehindMillis = Math.max(0, debounceMillis);
+	}
+	
+	/**
+	 * Sets how hard a save pushes the written file to disk, see {@link FsyncPolicy}
+	 *
+	 * @param fsyncPolicy the fsync policy
+	 */
+	public void setFsyncPolicy(FsyncPolicy fsyncPolicy)
+	{
+		writer.setFsyncPolicy(fsyncPolicy);
+	}
+	
+	/**
+	 * Checks if write-behind saving is enabled
+	 *
+	 * @return true if changes are saved in the background
+	 */
+	public boolean isWriteBehind()
+	{
+		return writeBehindMillis > 0;
+	}
+	
+	/**
+	 * This function sets a value for a given field in a configuration object and saves the configuration.
+	 *
+	 * @param name  The name of the field in the configuration object that needs to be set to the given value.
+	 * @param value The value that you want to set the specified field to.
+	 */
+	public void set(String name, Object value)
+	{
+		try
+		{
+			edit(transaction -> transaction.set(name, value));
+		} catch (IllegalArgumentException e)
+		{
+			SimpleModConfig.log.error("Unable to set config field: '{}' to '{}': {}", name, value, e.getMessage());
+		}
+	}
+	
+	/**
+	 * Edits several fields at once. The changes are validated first, then applied together and saved with a single write.
+	 * Values that equal the current value are skipped without being validated.
+	 * <pre>{@code
+	 * configHandler.edit(transaction -> transaction
+	 *         .set("Name", "Hello")
+	 *         .set("Toggle", true));
+	 * }</pre>
+	 *
+	 * @param edits stages the changes on the transaction
+	 * @return the names of the fields whose value changed, in the order they were staged
+	 * @throws IllegalArgumentException if any change is invalid, in that case nothing is applied
+	 */
+	public Set<String> edit(Consumer<ConfigTransaction> edits)
+	{
+		ensureLoaded();
+		ConfigTransaction transaction = new ConfigTransaction(this);
+		edits.accept(transaction);
+		return commit(transaction);
+	}
+	
+	/**
+	 * Validates and applies the changes of a transaction
+	 *
+	 * @param transaction the staged changes
+	 * @return the names of the fields whose value changed
 	 */
-	public ConfigHandler(String name, T initialConfig)
+	private synchronized Set<String> commit(ConfigTransaction transaction)
 	{
-		this.name = name;
-		CONFIG_FILE = Path.of(Platform.getConfigFolder().toString(), "%s.json".formatted(name)).toFile();
-		this.initialConfig = initialConfig;
-		this.config = initialConfig;
-		load();
+		ConfigSetEvent event = new ConfigSetEvent();
+		event.begin();
+		long start = System.nanoTime();
+		List<Change> validated = new ArrayList<>(transaction.getChanges().size());
+		List<String> errors = new ArrayList<>();
+		for (Map.Entry<String, Object> change : transaction.getChanges().entrySet())
+		{
+			try
+			{
+				ConfigPath path = ConfigPath.isPath(change.getKey()) ? ConfigPath.parse(change.getKey()) : null;
+				ConfigField field = schema.field(path == null ? change.getKey() : path.getField());
+				if (field == null)
+				{
+					errors.add("%s does not exist".formatted(change.getKey()));
+					continue;
+				}
+				// a value that is already set is not validated, so a value that was out of range in the file does not reject the other changes
+				Object current = path == null ? field.get(config) : ConfigNodes.get(field, config, path);
+				if (ConfigNodes.equal(current, change.getValue()))
+				{
+					continue;
+				}
+				if (path == null || path.isField())
+				{
+					// copied so the live config never shares a section with the caller or the initial values
+					validated.add(new Change(field, null, copy(field, field.coerce(change.getValue()))));
+				} else
+				{
+					validated.add(new Change(field, path, ConfigNodes.coerce(field, config, path, change.getValue())));
+				}
+			} catch (IllegalArgumentException e)
+			{
+				errors.add(e.getMessage());
+			}
+		}
+		if (!errors.isEmpty())
+		{
+			throw new IllegalArgumentException(String.join(", ", errors));
+		}
+		
+		Map<ConfigField, Object> previous = new LinkedHashMap<>();
+		for (Change change : validated)
+		{
+			ConfigField field = change.field();
+			if (change.path() == null)
+			{
+				Object old = field.get(config);
+				if (!ConfigNodes.equal(old, change.value()))
+				{
+					Object before = update(field, old, change.value());
+					previous.putIfAbsent(field, before);
+				}
+			} else if (!ConfigNodes.equal(ConfigNodes.get(field, config, change.path()), change.value()))
+			{
+				// the section is changed in place, its listeners get a copy of it from before the first change
+				if (!previous.containsKey(field))
+				{
+					previous.put(field, listeners.isListened(field) ? copy(field, field.get(config)) : field.get(config));
+				}
+				ConfigNodes.set(field, config, change.path(), change.value());
+			}
+		}
+		if (!previous.isEmpty())
+		{
+			requestSave();
+		}
+		Set<String> changed = changed(previous);
+		metrics.recordSet(System.nanoTime() - start);
+		event.report(name, String.join(",", changed));
+		return changed;
 	}
 	
 	/**
-	 * Loads a configuration file using Gson library and saves an initial configuration if the file does not exist or cannot be parsed.
+	 * Publishes the changed fields and notifies their listeners, callers must hold the handler's lock.
+	 *
+	 * @param previous the changed fields mapped to their value before the change
+	 * @return the names of the changed fields
 	 */
-	public void load()
+	private Set<String> changed(Map<ConfigField, Object> previous)
 	{
-		try
+		if (previous.isEmpty())
 		{
-			if (!CONFIG_FILE.exists())
-				save(initialConfig);
-			try (FileReader reader = new FileReader(CONFIG_FILE))
+			return Set.of();
+		}
+		publish(previous.keySet());
+		Set<String> changed = new LinkedHashSet<>();
+		for (Map.Entry<ConfigField, Object> change : previous.entrySet())
+		{
+			ConfigField field = change.getKey();
+			changed.add(field.getName());
+			writer.changed(field);
+			tooltips.invalidate(field.getOrdinal());
+			if (listeners.isListened(field))
 			{
-				Gson gson = new Gson();
-				config = (T) gson.fromJson(reader, config.getClass());
+				listeners.fire(field, change.getValue(), field.get(config));
 			}
-		} catch (ClassCastException e)
+		}
+		return changed;
+	}
+	
+	/**
+	 * Persists a change that was written straight into the live config by a typed {@link ConfigKey} and notifies its listeners.
+	 * Callers must hold the handler's lock while writing the field and calling this.
+	 *
+	 * @param field    the field that was written
+	 * @param oldValue the value before the write
+	 */
+	public void markChanged(ConfigField field, @Nullable Object oldValue)
+	{
+		ConfigSetEvent event = new ConfigSetEvent();
+		event.begin();
+		long start = System.nanoTime();
+		tooltips.invalidate(field.getOrdinal());
+		writer.changed(field);
+		publish(List.of(field));
+		requestSave();
+		if (listeners.isListened(field))
 		{
-			SimpleModConfig.log.error("Unable to parse config file: {}", CONFIG_FILE.getName(), e);
-			save(initialConfig);
-		} catch (IOException ignore)
+			listeners.fire(field, oldValue, field.get(config));
+		}
+		metrics.recordSet(System.nanoTime() - start);
+		event.report(name, field.getName());
+	}
+	
+	/**
+	 * Listens for changes of one field, the listener is called on the thread that made the change.
+	 * Changes made by {@link #set(String, Object)}, {@link #edit(Consumer)}, typed keys, reloads and resets are all reported, once per changed field.
+	 *
+	 * @param name     the field name
+	 * @param listener the listener
+	 * @throws IllegalArgumentException if the field does not exist
+	 */
+	public void onChange(String name, ConfigChangeListener listener)
+	{
+		onChange(name, Runnable::run, listener);
+	}
+	
+	/**
+	 * Listens for changes of one field.
+	 * Listeners are handed to their executor while the handler's lock is held, so an executor that runs them in order sees the changes in the order they were made.
+	 *
+	 * @param name     the field name
+	 * @param executor the executor the listener is called on, for example the server or render thread
+	 * @param listener the listener
+	 * @throws IllegalArgumentException if the field does not exist
+	 */
+	public void onChange(String name, Executor executor, ConfigChangeListener listener)
+	{
+		ConfigField field = schema.field(name);
+		if (field == null)
 		{
-			save(initialConfig);
+			throw new IllegalArgumentException("Unknown config field: %s".formatted(name));
 		}
+		listeners.add(field, executor, listener);
 	}
 	
 	/**
-	 * Saves a configuration object as a JSON file using the Gson library.
+	 * Listens for changes of any field, the listener is called once per changed field on the thread that made the change.
 	 *
-	 * @param config The parameter "config" is an object of type T, which is a generic type. The specific type of object being passed as "config" will depend on the context in which this method is being used. The method is designed to save the configuration data of an object to a file using the Gson
+	 * @param listener the listener
+	 */
+	public void onAnyChange(ConfigChangeListener listener)
+	{
+		onAnyChange(Runnable::run, listener);
+	}
+	
+	/**
+	 * Listens for changes of any field, the listener is called once per changed field.
+	 *
+	 * @param executor the executor the listener is called on
+	 * @param listener the listener
+	 */
+	public void onAnyChange(Executor executor, ConfigChangeListener listener)
+	{
+		listeners.addAny(executor, listener);
+	}
+	
+	/**
+	 * Removes a listener from every field it was registered for
+	 *
+	 * @param listener the listener
+	 * @return true if the listener was registered
+	 */
+	public boolean removeListener(ConfigChangeListener listener)
+	{
+		return listeners.remove(listener);
+	}
+	
+	/**
+	 * Publishes a fresh snapshot of the live config if snapshots are enabled.
+	 * Only the changed fields are copied, the others are shared with the previous snapshot, which is safe because snapshots are never modified.
+	 * Callers must hold the handler's lock so snapshots are published in the same order the changes were made.
+	 *
+	 * @param changed the fields that changed since the last snapshot
 	 */
-	private void save(T config)
+	private void publish(Collection<ConfigField> changed)
 	{
-		try (FileWriter writer = new FileWriter(CONFIG_FILE))
+		if (!snapshots)
 		{
-			this.config = config;
-			Gson gson = new GsonBuilder().setPrettyPrinting().disableHtmlEscaping().create();
-			String json = gson.toJson(getAll());
-			writer.write(json);
-			writer.flush();
-		} catch (IOException e)
+			return;
+		}
+		T previous = snapshot.get();
+		if (previous == null)
 		{
-			SimpleModConfig.log.error("Unable to save config file: {}", CONFIG_FILE.getName(), e);
+			snapshot.set(copy(config));
+			return;
+		}
+		T next = GSON.fromJson("{}", schema.getType());
+		for (ConfigField field : schema.fields())
+		{
+			field.set(next, changed.contains(field) ? copy(field, field.get(config)) : field.get(previous));
 		}
+		snapshot.set(next);
 	}
 	
-	public void save()
+	/**
+	 * Enables or disables snapshot publishing.
+	 * When enabled, every committed change publishes a new detached copy of the config, so {@link #getSnapshot()} is a single volatile read that never sees a half applied change.
+	 *
+	 * @param snapshots true to publish snapshots
+	 */
+	public synchronized void setSnapshots(boolean snapshots)
 	{
-		save(config);
+		this.snapshots = snapshots;
+		snapshot.set(snapshots ? copy(config) : null);
 	}
 	
 	/**
-	 * This function sets a value for a given field in a configuration object and saves the configuration.
+	 * Checks if snapshot publishing is enabled
 	 *
-	 * @param name  The name of the field in the configuration object that needs to be set to the given value.
-	 * @param value The value that you want to set the specified field to.
+	 * @return true if changes publish a new snapshot
 	 */
-	public void set(String name, Object value)
+	public boolean isSnapshots()
 	{
-		try
+		return snapshots;
+	}
+	
+	/**
+	 * Gets a consistent, read only view of the config that is safe to read from any thread.
+	 * With snapshots enabled this is the last published snapshot and costs no lock or copy, otherwise a copy is taken under the handler's lock.
+	 * The returned object must not be modified, use {@link #set(String, Object)} or {@link #edit(Consumer)} instead.
+	 *
+	 * @return the config snapshot
+	 */
+	public T getSnapshot()
+	{
+		ensureLoaded();
+		T current = snapshot.get();
+		if (current != null)
 		{
-			Field field = config.getClass().getDeclaredField(name);
-			field.set(config, value);
-			save(config);
-		} catch (NoSuchFieldException | IllegalAccessException e)
+			return current;
+		}
+		synchronized (this)
 		{
-			SimpleModConfig.log.error("Unable to set config field: '{}' to '{}'", name, value, e);
+			current = snapshot.get();
+			return current != null ? current : copy(config);
 		}
 	}
 	
+	/**
+	 * Gets a typed handle to an int field, see {@link ConfigKey}
+	 *
+	 * @param name the field name
+	 * @return the key
+	 * @throws IllegalArgumentException if the field does not exist or is not an int
+	 */
+	public IntKey intKey(String name)
+	{
+		return new IntKey(this, name);
+	}
+	
+	/**
+	 * Gets a typed handle to a long field, see {@link ConfigKey}
+	 *
+	 * @param name the field name
+	 * @return the key
+	 * @throws IllegalArgumentException if the field does not exist or is not a long
+	 */
+	public LongKey longKey(String name)
+	{
+		return new LongKey(this, name);
+	}
+	
+	/**
+	 * Gets a typed handle to a float field, see {@link ConfigKey}
+	 *
+	 * @param name the field name
+	 * @return the key
+	 * @throws IllegalArgumentException if the field does not exist or is not a float
+	 */
+	public FloatKey floatKey(String name)
+	{
+		return new FloatKey(this, name);
+	}
+	
+	/**
+	 * Gets a typed handle to a double field, see {@link ConfigKey}
+	 *
+	 * @param name the field name
+	 * @return the key
+	 * @throws IllegalArgumentException if the field does not exist or is not a double
+	 */
+	public DoubleKey doubleKey(String name)
+	{
+		return new DoubleKey(this, name);
+	}
+	
+	/**
+	 * Gets a typed handle to a boolean field, see {@link ConfigKey}
+	 *
+	 * @param name the field name
+	 * @return the key
+	 * @throws IllegalArgumentException if the field does not exist or is not a boolean
+	 */
+	public BooleanKey booleanKey(String name)
+	{
+		return new BooleanKey(this, name);
+	}
+	
+	/**
+	 * Gets a typed handle to an object field, see {@link ConfigKey}
+	 *
+	 * @param name the field name
+	 * @param type the type of the field
+	 * @return the key
+	 * @throws IllegalArgumentException if the field does not exist or is not of the given type
+	 */
+	public <V> ObjectKey<V> objectKey(String name, Class<V> type)
+	{
+		return new ObjectKey<>(this, name, type);
+	}
+	
+	/**
+	 * Gets the handle matching the type of a field, see {@link ConfigKey#of(ConfigHandler, String)}
+	 *
+	 * @param name the field name
+	 * @return the key
+	 * @throws IllegalArgumentException if the field does not exist
+	 */
+	public ConfigKey key(String name)
+	{
+		return ConfigKey.of(this, name);
+	}
+	
 	/**
 	 * This function retrieves the value of a field with a given name from a configuration object.
+	 * The name can also be a {@link ConfigPath} to a value inside a section or collection, like {@code Section.Limits.0} or {@code /Section/Limits/0}.
 	 *
-	 * @param name The name of the field that is being retrieved from the config object.
+	 * @param name The name of the field or the path of the value that is being retrieved from the config object.
 	 * @return The method is returning an object of the type @Nullable, which means it can either return an object of the specified type or null if an exception occurs while trying to get the value of the field.
 	 */
 	public @Nullable Object get(String name)
 	{
-		return get(name, config);
+		return get(name, current());
 	}
 	
 	/**
@@ -136,38 +1003,80 @@ public class ConfigHandler<T>
 		return get(name, initialConfig);
 	}
 	
+	/**
+	 * Reads a field by its schema entry, skipping the name lookup
+	 *
+	 * @param field a field of this config's schema
+	 * @return the value of the field
+	 */
+	public @Nullable Object get(ConfigField field)
+	{
+		T config = current();
+		return escaped(field, config, field.get(config));
+	}
+	
 	/**
 	 * This Java function attempts to retrieve a field value from a given object based on its name and returns null if it fails.
 	 *
-	 * @param name   The name of the field that we want to retrieve from the config object.
+	 * @param name   The name of the field or the path of the value that we want to retrieve from the config object.
 	 * @param config The `config` parameter is an object of a generic type `T`, which represents a configuration object. The method is designed to retrieve a field value from this configuration object.
-	 * @return The method is returning a nullable object. If the field with the given name exists and has the required annotation, then the value of that field from the given config object is returned. Otherwise, null is returned.
+	 * @return The method is returning a nullable object. If the field with the given name exists in the schema, then the value of that field from the given config object is returned. Otherwise, null is returned.
 	 */
 	private @Nullable Object get(String name, T config)
 	{
-		try
+		ConfigField field;
+		Object value = null;
+		if (!ConfigPath.isPath(name))
+		{
+			field = schema.field(name);
+		} else
 		{
-			Field field = config.getClass().getDeclaredField(name);
-			if (hasAnnotation(name))
+			try
 			{
-				return field.get(config);
+				ConfigPath path = ConfigPath.parse(name);
+				field = schema.field(path.getField());
+				if (field != null)
+				{
+					value = ConfigNodes.get(field, config, path);
+				}
+			} catch (IllegalArgumentException e)
+			{
+				field = null;
 			}
-		} catch (NoSuchFieldException | IllegalAccessException e)
+		}
+		if (field == null)
 		{
-			SimpleModConfig.log.error("Unable to get value of field: {}, from {}", name, CONFIG_FILE.getName(), e);
+			metrics.recordGetMiss();
+			SimpleModConfig.log.debug("Unable to get value of field: {}, from {}", name, CONFIG_FILE.getName());
+			return null;
 		}
-		return null;
+		return escaped(field, config, value == null && !ConfigPath.isPath(name) ? field.get(config) : value);
 	}
 	
 	/**
-	 * This function checks if a given field name has any associated configuration options.
+	 * Called when a value of the live config is handed out, a section or collection can be changed in place by the caller, so its saved JSON is no longer trusted.
 	 *
-	 * @param fieldName fieldName is a String parameter that represents the name of a field in a class. The method checks if this field has any annotations associated with it by calling the getConfigOptions() method. If the getConfigOptions() method returns a non-null value, it means that the field has annotations and the method returns true
-	 * @return The method `hasAnnotation` is returning a boolean value. It returns `true` if the `getConfigOptions` method returns a non-null value for the given `fieldName`, indicating that the field has an annotation. Otherwise, it returns `false`.
+	 * @return the value
 	 */
-	private boolean hasAnnotation(String fieldName)
+	private @Nullable Object escaped(ConfigField field, T from, @Nullable Object value)
 	{
-		return getConfigOptions(fieldName) != null;
+		if (from == config && value != null && ConfigField.isStructured(value.getClass()))
+		{
+			writer.changed(field);
+		}
+		return value;
+	}
+	
+	/**
+	 * Gets the field a name or path starts at
+	 *
+	 * @param name the field name or path
+	 * @return the field or null if there is none
+	 * @throws IllegalArgumentException if the path is malformed
+	 */
+	private @Nullable ConfigField fieldOf(String name)
+	{
+		return schema.field(ConfigPath.isPath(name) ? ConfigPath.parse(name).getField() : name);
 	}
 	
 	/**
@@ -178,15 +1087,21 @@ public class ConfigHandler<T>
 	 */
 	public @Nullable SimpleConfig getConfigOptions(String fieldName)
 	{
+		if (!ConfigPath.isPath(fieldName))
+		{
+			ConfigField field = schema.field(fieldName);
+			return field == null ? null : field.getOptions();
+		}
 		try
 		{
-			Field field = config.getClass().getField(fieldName);
-			return field.getAnnotation(SimpleConfig.class);
-		} catch (NoSuchFieldException e)
+			ConfigPath path = ConfigPath.parse(fieldName);
+			ConfigField field = schema.field(path.getField());
+			// values inside a section use the closest annotation on their path
+			return field == null ? null : ConfigNodes.getOptions(field, current(), path);
+		} catch (IllegalArgumentException e)
 		{
-			SimpleModConfig.log.error("Unable to get value of field: {}, from {}", fieldName, CONFIG_FILE.getName(), e);
+			return null;
 		}
-		return null;
 	}
 	
 	
@@ -198,32 +1113,27 @@ public class ConfigHandler<T>
 	 */
 	public boolean exists(String name)
 	{
-		return get(name) != null;
+		try
+		{
+			ConfigPath path = ConfigPath.isPath(name) ? ConfigPath.parse(name) : ConfigPath.of(name);
+			ConfigField field = schema.field(path.getField());
+			return field != null && ConfigNodes.get(field, current(), path) != null;
+		} catch (IllegalArgumentException e)
+		{
+			return false;
+		}
 	}
 	
 	
 	/**
 	 * This function retrieves all fields with a specific annotation from a given object and returns them in a HashMap.
+	 * The map iterates in schema order, the same order the fields are written to the config file.
 	 *
 	 * @return A HashMap containing the names and values of all fields in the "config" object that have an annotation.
 	 */
 	public HashMap<String, Object> getAll()
 	{
-		HashMap<String, Object> map = new HashMap<>();
-		Field[] fields = config.getClass().getFields();
-		for (Field field : fields)
-		{
-			try
-			{
-				if (hasAnnotation(field.getName()))
-				{
-					map.put(field.getName(), field.get(config));
-				}
-			} catch (IllegalAccessException ignore)
-			{
-			}
-		}
-		return map;
+		return getAllSorted();
 	}
 	
 	/**
@@ -233,35 +1143,79 @@ public class ConfigHandler<T>
 	 */
 	public LinkedHashMap<String, Object> getAllSorted()
 	{
-		LinkedHashMap<String, Object> sortedMap = new LinkedHashMap<>();
-		getAll().entrySet().stream()
-				.sorted((a, b) -> Integer.compare(getConfigOptions(a.getKey()).index(), getConfigOptions(b.getKey()).index()))
-				.forEachOrdered(entry -> sortedMap.put(entry.getKey(), entry.getValue()));
+		T config = current();
+		List<ConfigField> fields = schema.fields();
+		LinkedHashMap<String, Object> sortedMap = new LinkedHashMap<>(fields.size() * 2);
+		for (ConfigField field : fields)
+		{
+			sortedMap.put(field.getName(), escaped(field, config, field.get(config)));
+		}
 		return sortedMap;
 	}
 	
+	/**
+	 * Gets every String, number, boolean and enum value of the config in schema order.
+	 * Plain fields are keyed by their name and the values inside sections and collections by their {@link ConfigPath}, which can be handed to {@link #get(String)} and {@link #set(String, Object)}.
+	 *
+	 * @return the values keyed by name or path
+	 */
+	public LinkedHashMap<String, Object> getLeaves()
+	{
+		T config = current();
+		LinkedHashMap<String, Object> leaves = new LinkedHashMap<>(schema.size() * 2);
+		for (ConfigField field : schema.fields())
+		{
+			ConfigNodes.flatten(field, config, leaves);
+		}
+		return leaves;
+	}
+	
+	/**
+	 * Gets the JSON of a field or of the value at a path
+	 *
+	 * @param name the field name or path
+	 * @return the pretty printed JSON, "null" if there is no value
+	 */
+	public String toJson(String name)
+	{
+		return GSON.toJson(get(name));
+	}
+	
 	/**
 	 * This function returns a tooltip with information about a configuration option.
 	 *
+	 * The tooltip is built once and cached until the field changes or the language changes, the returned component must not be modified.
+	 *
 	 * @param name The name of the configuration option for which the tooltip is being generated.
 	 * @return A Component object is being returned.
 	 */
 	public Component getTooltip(String name)
 	{
-		Object value = Objects.requireNonNull(get(name));
-		SimpleConfig options = getConfigOptions(name);
-		assert options != null;
-		String displayName = options.displayName();
-		if (displayName.isEmpty())
+		if (ConfigPath.isPath(name))
 		{
-			displayName = name;
+			// not cached, the values inside a section come and go with its content
+			ConfigPath path = ConfigPath.parse(name);
+			ConfigField field = Objects.requireNonNull(schema.field(path.getField()));
+			T current = current();
+			return buildTooltip(path.toString(), ConfigNodes.getOptions(field, current, path), ConfigNodes.get(field, current, path), getInitial(name));
 		}
+		ConfigField field = Objects.requireNonNull(schema.field(name));
+		return tooltips.get(field.getOrdinal(), () ->
+		{
+			String displayName = field.getOptions().displayName();
+			return buildTooltip(displayName.isEmpty() ? name : displayName, field.getOptions(), field.get(current()), field.get(initialConfig));
+		});
+	}
+	
+	private Component buildTooltip(String displayName, SimpleConfig options, @Nullable Object value, @Nullable Object initial)
+	{
+		Objects.requireNonNull(value);
 		MutableComponent tooltip = Component.literal("%s%s%s".formatted(ChatFormatting.AQUA, displayName, ChatFormatting.RESET));
 		if (!options.description().isEmpty())
 		{
 			tooltip.append("\n%s%s%s".formatted(ChatFormatting.GOLD, options.description(), ChatFormatting.RESET));
 		}
-		tooltip.append("\n%sdefault: %s%s%s".formatted(ChatFormatting.GOLD, ChatFormatting.GREEN, get(name, initialConfig), ChatFormatting.RESET));
+		tooltip.append("\n%sdefault: %s%s%s".formatted(ChatFormatting.GOLD, ChatFormatting.GREEN, initial, ChatFormatting.RESET));
 		if (options.options().length > 0)
 		{
 			tooltip.append("\n%stype: %sOptions".formatted(ChatFormatting.GOLD, ChatFormatting.GREEN));
@@ -284,16 +1238,83 @@ public class ConfigHandler<T>
 		return tooltip;
 	}
 	
+	/**
+	 * Gets the display name of a field, the displayName option or the field name split into words.
+	 * The component is cached until the language changes, it must not be modified.
+	 *
+	 * @param name the field name
+	 * @return the display name component
+	 */
+	public Component getFieldDisplayName(String name)
+	{
+		if (ConfigPath.isPath(name))
+		{
+			// the display name of the field followed by the rest of the path, not cached like the tooltips of paths
+			ConfigPath path = ConfigPath.parse(name);
+			MutableComponent displayName = getFieldDisplayName(path.getField()).copy();
+			for (int i = 1; i < path.size(); i++)
+			{
+				displayName.append(" / " + splitWords(path.get(i)));
+			}
+			return displayName;
+		}
+		ConfigField field = Objects.requireNonNull(schema.field(name));
+		return fieldNames.get(field.getOrdinal(), () ->
+		{
+			String displayName = field.getOptions().displayName();
+			if (!displayName.isEmpty())
+				return Component.literal(displayName);
+			return Component.literal(splitWords(name));
+		});
+	}
+	
+	private static String splitWords(String name)
+	{
+		StringBuilder builder = new StringBuilder();
+		for (int i = 0; i < name.length(); i++)
+		{
+			char c = name.charAt(i);
+			if (Character.isUpperCase(c))
+			{
+				builder.append(' ');
+			}
+			builder.append(c);
+		}
+		return builder.toString().trim();
+	}
+	
+	/**
+	 * Drops the cached tooltips and field display names of every config, called when the client language changes
+	 */
+	public static void invalidateComponents()
+	{
+		ComponentCache.invalidateAll();
+	}
+	
 	/**
 	 * returns configuration object.
+	 * Sections and collections changed in place on the returned object are written by the next {@link #save()}, use {@link #set(String, Object)} with a path to have only the changed section written again.
 	 *
 	 * @return The method is returning an object of type T, which is the type of the variable "config". The specific type of object being returned depends on how the "config" variable was defined and initialized.
 	 */
 	public T getConfig()
 	{
+		ensureLoaded();
 		return config;
 	}
 	
+	/**
+	 * Gets the object reads go through, the published snapshot when snapshots are enabled and the live config otherwise
+	 *
+	 * @return the config to read from
+	 */
+	private T current()
+	{
+		ensureLoaded();
+		T current = snapshot.get();
+		return current != null ? current : config;
+	}
+	
 	/**
 	 * Gets the initial config values
 	 *
@@ -309,7 +1330,11 @@ public class ConfigHandler<T>
 	 */
 	public void reset()
 	{
-		save(initialConfig);
+		ensureLoaded();
+		ConfigResetEvent event = new ConfigResetEvent();
+		event.begin();
+		restoreDefaults();
+		event.report(name, null);
 	}
 	
 	/**
@@ -319,22 +1344,41 @@ public class ConfigHandler<T>
 	 */
 	public void reset(String name)
 	{
-		
-		Field field;
-		try
+		ConfigField field = fieldOf(name);
+		if (field == null)
 		{
-			field = initialConfig.getClass().getDeclaredField(name);
-			@Nullable Object value = field.get(initialConfig);
-			if (value != null)
-			{
-				set(name, value);
-			}
-		} catch (NoSuchFieldException | IllegalAccessException e)
+			throw new IllegalArgumentException("Unknown config field: %s".formatted(name));
+		}
+		@Nullable Object value = getInitial(name);
+		if (value != null)
 		{
-			throw new RuntimeException(e);
+			ConfigResetEvent event = new ConfigResetEvent();
+			event.begin();
+			set(name, value);
+			event.report(this.name, name);
 		}
 	}
 	
+	/**
+	 * Gets the compiled schema of the config class
+	 *
+	 * @return the config schema
+	 */
+	public ConfigSchema<T> getSchema()
+	{
+		return schema;
+	}
+	
+	/**
+	 * Gets the runtime metrics of this config, see {@link ConfigMetrics}
+	 *
+	 * @return the metrics
+	 */
+	public ConfigMetrics getMetrics()
+	{
+		return metrics;
+	}
+	
 	/**
 	 * Gets the configs name
 	 *
@@ -373,6 +1417,17 @@ public class ConfigHandler<T>
 	@Override
 	public String toString()
 	{
-		return new Gson().toJson(config);
+		return GSON.toJson(current());
+	}
+	
+	/**
+	 * One validated change of a transaction
+	 *
+	 * @param field the field that is changed
+	 * @param path  the path inside the field, null if the whole field is replaced
+	 * @param value the converted value
+	 */
+	private record Change(ConfigField field, @Nullable ConfigPath path, @Nullable Object value)
+	{
 	}
 }
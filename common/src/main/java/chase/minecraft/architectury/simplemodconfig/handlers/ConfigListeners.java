@@ -0,0 +1,104 @@
+package chase.minecraft.architectury.simplemodconfig.handlers;
+
+import chase.minecraft.architectury.simplemodconfig.SimpleModConfig;
+import chase.minecraft.architectury.simplemodconfig.schema.ConfigField;
+import chase.minecraft.architectury.simplemodconfig.schema.ConfigSchema;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+
+/**
+ * The ConfigListeners class holds the change listeners of one {@link ConfigHandler}.
+ * Listeners are kept in one list per field, indexed by the field's ordinal, so a change only visits the listeners of the field that changed and the any-change listeners.
+ */
+final class ConfigListeners
+{
+	private final List<List<Subscription>> byField;
+	private final List<Subscription> any = new CopyOnWriteArrayList<>();
+	
+	ConfigListeners(ConfigSchema<?> schema)
+	{
+		byField = new ArrayList<>(schema.size());
+		for (int i = 0; i < schema.size(); i++)
+		{
+			byField.add(new CopyOnWriteArrayList<>());
+		}
+	}
+	
+	void add(ConfigField field, Executor executor, ConfigChangeListener listener)
+	{
+		byField.get(field.getOrdinal()).add(new Subscription(executor, listener));
+	}
+	
+	void addAny(Executor executor, ConfigChangeListener listener)
+	{
+		any.add(new Subscription(executor, listener));
+	}
+	
+	boolean remove(ConfigChangeListener listener)
+	{
+		boolean removed = any.removeIf(subscription -> subscription.listener == listener);
+		for (List<Subscription> subscriptions : byField)
+		{
+			removed |= subscriptions.removeIf(subscription -> subscription.listener == listener);
+		}
+		return removed;
+	}
+	
+	/**
+	 * Checks if a change to the field would notify anyone, so callers can skip building the change
+	 *
+	 * @param field the field
+	 * @return true if the field or any change is listened to
+	 */
+	boolean isListened(ConfigField field)
+	{
+		return !any.isEmpty() || !byField.get(field.getOrdinal()).isEmpty();
+	}
+	
+	/**
+	 * Notifies the listeners of the field and the any-change listeners, each on its own executor
+	 *
+	 * @param field    the field that changed
+	 * @param oldValue the value before the change
+	 * @param newValue the value after the change
+	 */
+	void fire(ConfigField field, @Nullable Object oldValue, @Nullable Object newValue)
+	{
+		fire(byField.get(field.getOrdinal()), field.getName(), oldValue, newValue);
+		fire(any, field.getName(), oldValue, newValue);
+	}
+	
+	private static void fire(List<Subscription> subscriptions, String name, @Nullable Object oldValue, @Nullable Object newValue)
+	{
+		for (Subscription subscription : subscriptions)
+		{
+			try
+			{
+				subscription.executor.execute(() -> notify(subscription.listener, name, oldValue, newValue));
+			} catch (RuntimeException e)
+			{
+				SimpleModConfig.log.error("Unable to notify change listener of field: {}", name, e);
+			}
+		}
+	}
+	
+	private static void notify(ConfigChangeListener listener, String name, @Nullable Object oldValue, @Nullable Object newValue)
+	{
+		try
+		{
+			listener.onChange(name, oldValue, newValue);
+		} catch (RuntimeException e)
+		{
+			// one broken listener must not stop the others or fail the change that was already committed
+			SimpleModConfig.log.error("Change listener of field: {} failed", name, e);
+		}
+	}
+	
+	private record Subscription(Executor executor, ConfigChangeListener listener)
+	{
+	}
+}
@@ -0,0 +1,56 @@
+package chase.minecraft.architectury.simplemodconfig.handlers;
+
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * The ConfigTransaction class collects changes for {@link ConfigHandler#edit(java.util.function.Consumer)}.
+ * Nothing is written to the config until the transaction is committed, then every change is validated, applied together and saved once.
+ */
+public class ConfigTransaction
+{
+	private final ConfigHandler<?> handler;
+	private final Map<String, Object> changes = new LinkedHashMap<>();
+	
+	ConfigTransaction(ConfigHandler<?> handler)
+	{
+		this.handler = handler;
+	}
+	
+	/**
+	 * Stages a new value for a field, setting the same field twice keeps the last value.
+	 *
+	 * @param name  The name of the field in the configuration object that needs to be set to the given value.
+	 * @param value The value that you want to set the specified field to.
+	 * @return this transaction
+	 */
+	public ConfigTransaction set(String name, @Nullable Object value)
+	{
+		changes.put(name, value);
+		return this;
+	}
+	
+	/**
+	 * Stages the initial value for a field or for the value at a path inside a section
+	 *
+	 * @param name The name of the field or the path of the value that needs to be reset.
+	 * @return this transaction
+	 */
+	public ConfigTransaction reset(String name)
+	{
+		return set(name, handler.getInitial(name));
+	}
+	
+	/**
+	 * Gets the staged changes
+	 *
+	 * @return an unmodifiable map of field names to the new values
+	 */
+	public Map<String, Object> getChanges()
+	{
+		return Collections.unmodifiableMap(changes);
+	}
+}
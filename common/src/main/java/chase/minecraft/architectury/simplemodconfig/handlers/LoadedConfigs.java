@@ -1,46 +1,100 @@
 package chase.minecraft.architectury.simplemodconfig.handlers;
 
 import chase.minecraft.architectury.simplemodconfig.SimpleModConfig;
+import chase.minecraft.architectury.simplemodconfig.metrics.ConfigMetrics;
+import chase.minecraft.architectury.simplemodconfig.search.SettingIndex;
 import com.google.common.base.Stopwatch;
+import org.jetbrains.annotations.Nullable;
 
-import java.util.LinkedHashMap;
-import java.util.Map;
-import java.util.Set;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
 
+/**
+ * The LoadedConfigs class is the registry of every config registered through a {@link chase.minecraft.architectury.simplemodconfig.SimpleModConfigBuilder}.
+ * Entries are kept sorted by display name, ignoring case, in a skip list so registering is O(log n) and iterating is safe while other threads register.
+ * Lookups by display name and by mod id go through hash maps.
+ */
 public class LoadedConfigs
 {
-	private static LoadedConfigs instance;
-	private LinkedHashMap<String, ConfigHandler<?>> loaded_mods;
+	private static final int MAX_LOAD_THREADS = 4;
+	// names that only differ in case are still distinct entries
+	private static final Comparator<String> ORDER = String.CASE_INSENSITIVE_ORDER.thenComparing(Comparator.naturalOrder());
+	private static final LoadedConfigs instance = new LoadedConfigs();
+	private final ConcurrentNavigableMap<String, ConfigHandler<?>> loaded_mods = new ConcurrentSkipListMap<>(ORDER);
+	private final Map<String, ConfigHandler<?>> byName = new ConcurrentHashMap<>();
+	private final Map<String, ConfigHandler<?>> byModId = new ConcurrentHashMap<>();
+	private final Map<String, Duration> loadTimes = new ConcurrentHashMap<>();
+	private CompletableFuture<Void> loading = CompletableFuture.completedFuture(null);
+	private volatile @Nullable SettingIndex settingIndex;
 	
 	protected LoadedConfigs()
 	{
-		loaded_mods = new LinkedHashMap<>();
 	}
 	
 	public static LoadedConfigs getInstance()
 	{
-		if (instance == null)
-			instance = new LoadedConfigs();
 		return instance;
 	}
 	
+	/**
+	 * Registers a config, a config registered again under the same name replaces the old one.
+	 * The maps are updated while the name's entry in the name map is locked, so registering and removing the same name from several threads can not leave them disagreeing.
+	 *
+	 * @param name    the display name of the mod
+	 * @param handler the config handler
+	 */
 	public void add(String name, ConfigHandler<?> handler)
 	{
-		loaded_mods.put(name, handler);
-		sort();
+		byName.compute(name, (key, previous) ->
+		{
+			if (previous != null && previous != handler)
+			{
+				byModId.remove(previous.getName(), previous);
+			}
+			byModId.put(handler.getName(), handler);
+			loaded_mods.put(name, handler);
+			SettingIndex index = settingIndex;
+			if (index != null)
+			{
+				index.add(name, handler);
+			}
+			return handler;
+		});
 	}
 	
 	public void remove(String name)
 	{
-		if (exists(name))
-			loaded_mods.remove(name);
+		byName.computeIfPresent(name, (key, handler) ->
+		{
+			loaded_mods.remove(name, handler);
+			byModId.remove(handler.getName(), handler);
+			SettingIndex index = settingIndex;
+			if (index != null)
+			{
+				index.remove(name);
+			}
+			return null;
+		});
 	}
 	
 	public boolean exists(String name)
 	{
-		return loaded_mods.containsKey(name);
+		return byName.containsKey(name);
 	}
 	
+	/**
+	 * Gets every registered config sorted by display name, the view reflects registrations made while iterating it and never throws a {@link ConcurrentModificationException}
+	 *
+	 * @return the registered configs
+	 */
 	public Set<Map.Entry<String, ConfigHandler<?>>> get()
 	{
 		return loaded_mods.entrySet();
@@ -48,25 +102,148 @@ public class LoadedConfigs
 	
 	public ConfigHandler<?> get(String name)
 	{
-		return loaded_mods.get(name);
+		return byName.get(name);
+	}
+	
+	/**
+	 * Gets a config by mod id, this is the name its config file is saved under
+	 *
+	 * @param modId the name of the config file not including the .json
+	 * @return the config handler or null if no config uses that name
+	 */
+	public @Nullable ConfigHandler<?> getByModId(String modId)
+	{
+		return byModId.get(modId);
 	}
 	
 	public int size()
 	{
-		return loaded_mods.size();
+		return byName.size();
 	}
 	
-	private void sort()
+	/**
+	 * Loads every registered handler that has not been loaded yet on a bounded thread pool.
+	 * Each file is loaded and timed on its own, a file that fails to load is logged and does not hold up the others.
+	 * This includes lazy handlers, so calling it gives up their deferred loading, with Parallel Loading turned on it is called at setup.
+	 *
+	 * @return a future that completes once every pending handler finished loading
+	 */
+	public synchronized CompletableFuture<Void> loadPending()
 	{
-		SimpleModConfig.log.warn("Sorting loaded mods list, this might take a moment!");
-		Stopwatch stopwatch = Stopwatch.createStarted();
+		List<ConfigHandler<?>> pending = new ArrayList<>();
+		for (ConfigHandler<?> handler : loaded_mods.values())
+		{
+			if (!handler.isLoaded())
+			{
+				pending.add(handler);
+			}
+		}
+		if (pending.isEmpty())
+		{
+			return loading;
+		}
 		
-		LinkedHashMap<String, ConfigHandler<?>> sortedMap = new LinkedHashMap<>();
-		loaded_mods.entrySet().parallelStream()
-				.sorted((a, b) -> String.CASE_INSENSITIVE_ORDER.compare(a.getKey(), b.getKey()))
-				.forEachOrdered(entry -> sortedMap.put(entry.getKey(), entry.getValue()));
-		loaded_mods = sortedMap;
+		Stopwatch stopwatch = Stopwatch.createStarted();
+		ExecutorService pool = Executors.newFixedThreadPool(Math.min(pending.size(), Math.min(MAX_LOAD_THREADS, Runtime.getRuntime().availableProcessors())), new LoaderThreadFactory());
+		CompletableFuture<?>[] tasks = new CompletableFuture<?>[pending.size()];
+		for (int i = 0; i < tasks.length; i++)
+		{
+			ConfigHandler<?> handler = pending.get(i);
+			tasks[i] = CompletableFuture.runAsync(() -> load(handler), pool);
+		}
+		pool.shutdown();
+		loading = CompletableFuture.allOf(loading, CompletableFuture.allOf(tasks))
+				.whenComplete((ignore, error) -> SimpleModConfig.log.info("Loaded {} config files in {}", tasks.length, stopwatch.stop().elapsed()));
+		return loading;
+	}
+	
+	/**
+	 * Blocks until every load started by {@link #loadPending()} has finished, this is the barrier before the first world is loaded.
+	 */
+	public void awaitLoaded()
+	{
+		CompletableFuture<Void> loading;
+		synchronized (this)
+		{
+			loading = this.loading;
+		}
+		loading.join();
+	}
+	
+	/**
+	 * Gets how long each config file took to load in the last {@link #loadPending()}
+	 *
+	 * @return an unmodifiable map of config file names to load times
+	 */
+	public Map<String, Duration> getLoadTimes()
+	{
+		return Collections.unmodifiableMap(loadTimes);
+	}
+	
+	/**
+	 * Gets the index for searching settings across every registered config.
+	 * The index is created on first use and built in the background, after that it is updated as configs register.
+	 *
+	 * @return the setting index
+	 */
+	public SettingIndex getSettingIndex()
+	{
+		SettingIndex index = settingIndex;
+		if (index != null)
+		{
+			return index;
+		}
+		synchronized (this)
+		{
+			if (settingIndex == null)
+			{
+				// published before the registered configs are read, so a config registering meanwhile is indexed at least once
+				index = new SettingIndex(ORDER);
+				settingIndex = index;
+				for (Map.Entry<String, ConfigHandler<?>> entry : loaded_mods.entrySet())
+				{
+					index.add(entry.getKey(), entry.getValue());
+				}
+			}
+			return settingIndex;
+		}
+	}
+	
+	/**
+	 * Sums the runtime metrics of every registered config
+	 *
+	 * @return new metrics holding the totals, they do not update
+	 */
+	public ConfigMetrics getMetrics()
+	{
+		return ConfigMetrics.sum(byModId.values().stream().map(ConfigHandler::getMetrics).toList());
+	}
+	
+	private void load(ConfigHandler<?> handler)
+	{
+		Stopwatch stopwatch = Stopwatch.createStarted();
+		try
+		{
+			handler.load();
+		} catch (RuntimeException e)
+		{
+			SimpleModConfig.log.error("Unable to load config file: {}", handler.CONFIG_FILE.getName(), e);
+		}
+		Duration elapsed = stopwatch.stop().elapsed();
+		loadTimes.put(handler.CONFIG_FILE.getName(), elapsed);
+		SimpleModConfig.log.debug("Loaded config file: {} in {}", handler.CONFIG_FILE.getName(), elapsed);
+	}
+	
+	private static final class LoaderThreadFactory implements ThreadFactory
+	{
+		private static final AtomicInteger COUNT = new AtomicInteger();
 		
-		SimpleModConfig.log.info("Done sorting loaded mods list: process took {}", stopwatch.stop().elapsed());
+		@Override
+		public Thread newThread(Runnable runnable)
+		{
+			Thread thread = new Thread(runnable, "SimpleModConfig-Loader-" + COUNT.incrementAndGet());
+			thread.setDaemon(true);
+			return thread;
+		}
 	}
 }
@@ -0,0 +1,208 @@
+package chase.minecraft.architectury.simplemodconfig.io;
+
+import chase.minecraft.architectury.simplemodconfig.schema.ConfigField;
+import chase.minecraft.architectury.simplemodconfig.schema.ConfigSchema;
+import com.google.gson.Gson;
+import com.google.gson.JsonParseException;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Arrays;
+
+/**
+ * The ConfigCache class keeps a compact binary copy of a parsed config file next to it, so unchanged files do not have to be parsed by Gson on every start.
+ * The cache is keyed by the size, modification time and content hash of the JSON file and by the {@link ConfigSchema#getFingerprint() schema fingerprint}, if any of them differ the cache is ignored and the JSON is parsed as usual.
+ * Primitive and String fields are stored raw, every other field is stored as its JSON text.
+ */
+public final class ConfigCache
+{
+	/**
+	 * The suffix of the cache file, appended to the config file name
+	 */
+	public static final String SUFFIX = ".bin";
+	private static final int MAGIC = 0x534D4343;
+	private static final int VERSION = 1;
+	private final Path file;
+	
+	/**
+	 * Creates the cache of a config file
+	 *
+	 * @param target the config file
+	 */
+	public ConfigCache(Path target)
+	{
+		this.file = target.resolveSibling(target.getFileName() + SUFFIX);
+	}
+	
+	/**
+	 * Reads the cached field values if the cache matches the given JSON content
+	 *
+	 * @param schema   the schema of the config
+	 * @param size     the size of the JSON file
+	 * @param modified the modification time of the JSON file in milliseconds
+	 * @param hash     the content hash of the JSON file, see {@link ConfigWriter#hash(byte[])}
+	 * @param gson     the gson instance used for fields that are not stored raw
+	 * @return the field values indexed by {@link ConfigField#getOrdinal()}, or null if there is no valid cache
+	 */
+	public @Nullable Object[] read(ConfigSchema<?> schema, long size, long modified, byte[] hash, Gson gson)
+	{
+		ByteBuffer buffer;
+		try
+		{
+			buffer = ByteBuffer.wrap(Files.readAllBytes(file));
+		} catch (IOException e)
+		{
+			// no cache yet
+			return null;
+		}
+		try
+		{
+			if (buffer.getInt() != MAGIC || buffer.getInt() != VERSION || buffer.getLong() != schema.getFingerprint() || buffer.getLong() != size || buffer.getLong() != modified)
+			{
+				return null;
+			}
+			byte[] cachedHash = new byte[buffer.getInt()];
+			buffer.get(cachedHash);
+			if (!Arrays.equals(cachedHash, hash))
+			{
+				return null;
+			}
+			Object[] values = new Object[schema.size()];
+			for (ConfigField field : schema.fields())
+			{
+				values[field.getOrdinal()] = decode(field, buffer, gson);
+			}
+			return buffer.hasRemaining() ? null : values;
+		} catch (BufferUnderflowException | IndexOutOfBoundsException | NegativeArraySizeException | JsonParseException | IllegalArgumentException e)
+		{
+			// truncated or foreign file, it is rewritten after the JSON is parsed
+			return null;
+		}
+	}
+	
+	/**
+	 * Writes the field values of a freshly parsed config to the cache
+	 *
+	 * @param schema   the schema of the config
+	 * @param config   the parsed config object
+	 * @param size     the size of the JSON file
+	 * @param modified the modification time of the JSON file in milliseconds
+	 * @param hash     the content hash of the JSON file
+	 * @param gson     the gson instance used for fields that are not stored raw
+	 * @throws IOException if the cache could not be written
+	 */
+	public void write(ConfigSchema<?> schema, Object config, long size, long modified, byte[] hash, Gson gson) throws IOException
+	{
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream(256 + schema.size() * 16);
+		DataOutputStream out = new DataOutputStream(bytes);
+		out.writeInt(MAGIC);
+		out.writeInt(VERSION);
+		out.writeLong(schema.getFingerprint());
+		out.writeLong(size);
+		out.writeLong(modified);
+		out.writeInt(hash.length);
+		out.write(hash);
+		for (ConfigField field : schema.fields())
+		{
+			encode(field, config, out, gson);
+		}
+		Path temp = file.resolveSibling(file.getFileName() + ConfigWriter.TEMP_SUFFIX);
+		Files.write(temp, bytes.toByteArray());
+		Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING);
+	}
+	
+	/**
+	 * Deletes the cache file
+	 */
+	public void delete()
+	{
+		try
+		{
+			Files.deleteIfExists(file);
+		} catch (IOException ignore)
+		{
+			// a stale cache is never used, so leaving it behind is harmless
+		}
+	}
+	
+	/**
+	 * Checks if a cache file exists for the config
+	 *
+	 * @return true if the cache file exists
+	 */
+	public boolean exists()
+	{
+		return Files.exists(file);
+	}
+	
+	private static void encode(ConfigField field, Object config, DataOutputStream out, Gson gson) throws IOException
+	{
+		Class<?> type = field.getType();
+		if (type == int.class)
+		{
+			out.writeInt(field.getInt(config));
+		} else if (type == long.class)
+		{
+			out.writeLong(field.getLong(config));
+		} else if (type == float.class)
+		{
+			out.writeFloat(field.getFloat(config));
+		} else if (type == double.class)
+		{
+			out.writeDouble(field.getDouble(config));
+		} else if (type == boolean.class)
+		{
+			out.writeBoolean(field.getBoolean(config));
+		} else
+		{
+			Object value = field.get(config);
+			if (value == null)
+			{
+				out.writeInt(-1);
+				return;
+			}
+			String text = type == String.class ? (String) value : gson.toJson(value, field.getField().getGenericType());
+			byte[] utf8 = text.getBytes(StandardCharsets.UTF_8);
+			out.writeInt(utf8.length);
+			out.write(utf8);
+		}
+	}
+	
+	private static @Nullable Object decode(ConfigField field, ByteBuffer buffer, Gson gson)
+	{
+		Class<?> type = field.getType();
+		if (type == int.class)
+			return buffer.getInt();
+		if (type == long.class)
+			return buffer.getLong();
+		if (type == float.class)
+			return buffer.getFloat();
+		if (type == double.class)
+			return buffer.getDouble();
+		if (type == boolean.class)
+			return buffer.get() != 0;
+		
+		int length = buffer.getInt();
+		if (length < 0)
+		{
+			return null;
+		}
+		String text = new String(buffer.array(), buffer.arrayOffset() + buffer.position(), length, StandardCharsets.UTF_8);
+		buffer.position(buffer.position() + length);
+		if (type == String.class)
+		{
+			return text;
+		}
+		Type generic = field.getField().getGenericType();
+		return gson.fromJson(text, generic);
+	}
+}
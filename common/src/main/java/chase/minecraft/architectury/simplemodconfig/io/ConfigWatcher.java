@@ -0,0 +1,174 @@
+package chase.minecraft.architectury.simplemodconfig.io;
+
+import chase.minecraft.architectury.simplemodconfig.SimpleModConfig;
+import chase.minecraft.architectury.simplemodconfig.handlers.ConfigHandler;
+import chase.minecraft.architectury.simplemodconfig.handlers.LoadedConfigs;
+import dev.architectury.platform.Platform;
+
+import java.io.IOException;
+import java.nio.file.*;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The ConfigWatcher class hot-reloads config files that were edited on disk.
+ * A single watcher thread per JVM watches the config folder and reloads the matching handler from {@link LoadedConfigs} once the file has been quiet for the debounce window.
+ * Writes made by the library itself are recognised by their content hash and ignored.
+ */
+public final class ConfigWatcher
+{
+	private static final long DEBOUNCE_MILLIS = 250;
+	private static final ConfigWatcher instance = new ConfigWatcher();
+	private final Map<String, Long> pending = new HashMap<>();
+	private WatchService service;
+	private Thread thread;
+	
+	private ConfigWatcher()
+	{
+	}
+	
+	public static ConfigWatcher getInstance()
+	{
+		return instance;
+	}
+	
+	/**
+	 * Starts watching the config folder, calling this more than once does nothing.
+	 */
+	public synchronized void start()
+	{
+		if (thread != null)
+		{
+			return;
+		}
+		Path folder = Platform.getConfigFolder();
+		try
+		{
+			service = folder.getFileSystem().newWatchService();
+			folder.register(service, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY);
+		} catch (IOException e)
+		{
+			SimpleModConfig.log.error("Unable to watch config folder: {}, hot reloading is disabled", folder, e);
+			return;
+		}
+		thread = new Thread(this::run, "SimpleModConfig-Watcher");
+		thread.setDaemon(true);
+		thread.start();
+	}
+	
+	/**
+	 * Stops watching the config folder
+	 */
+	public synchronized void stop()
+	{
+		if (thread == null)
+		{
+			return;
+		}
+		try
+		{
+			service.close();
+		} catch (IOException ignore)
+		{
+		}
+		thread.interrupt();
+		thread = null;
+	}
+	
+	/**
+	 * Checks if the watcher thread is running
+	 *
+	 * @return true if config files are hot reloaded
+	 */
+	public synchronized boolean isRunning()
+	{
+		return thread != null;
+	}
+	
+	private void run()
+	{
+		WatchService service = this.service;
+		try
+		{
+			while (!Thread.currentThread().isInterrupted())
+			{
+				WatchKey key = pending.isEmpty() ? service.take() : service.poll(nextDeadline(), TimeUnit.MILLISECONDS);
+				if (key != null)
+				{
+					long deadline = System.currentTimeMillis() + DEBOUNCE_MILLIS;
+					for (WatchEvent<?> event : key.pollEvents())
+					{
+						if (event.kind() == StandardWatchEventKinds.OVERFLOW)
+						{
+							LoadedConfigs.getInstance().get().forEach(entry -> pending.put(entry.getValue().CONFIG_FILE.getName(), deadline));
+						} else if (event.context() instanceof Path path)
+						{
+							String fileName = path.getFileName().toString();
+							if (fileName.endsWith(".json"))
+							{
+								// every event restarts the window, editors often write a file several times per save
+								pending.put(fileName, deadline);
+							}
+						}
+					}
+					key.reset();
+				}
+				reloadDue();
+			}
+		} catch (InterruptedException | ClosedWatchServiceException ignore)
+		{
+			// stopped
+		}
+	}
+	
+	private long nextDeadline()
+	{
+		long now = System.currentTimeMillis();
+		long next = Long.MAX_VALUE;
+		for (long deadline : pending.values())
+		{
+			next = Math.min(next, deadline);
+		}
+		return Math.max(1, next - now);
+	}
+	
+	private void reloadDue()
+	{
+		long now = System.currentTimeMillis();
+		Iterator<Map.Entry<String, Long>> iterator = pending.entrySet().iterator();
+		while (iterator.hasNext())
+		{
+			Map.Entry<String, Long> entry = iterator.next();
+			if (entry.getValue() > now)
+			{
+				continue;
+			}
+			iterator.remove();
+			ConfigHandler<?> handler = find(entry.getKey());
+			if (handler == null)
+			{
+				continue;
+			}
+			try
+			{
+				Set<String> changed = handler.reloadIfChanged();
+				if (!changed.isEmpty())
+				{
+					SimpleModConfig.log.info("Reloaded config file: {}, changed {}", entry.getKey(), changed);
+				}
+			} catch (RuntimeException e)
+			{
+				SimpleModConfig.log.error("Unable to reload config file: {}", entry.getKey(), e);
+			}
+		}
+	}
+	
+	private static ConfigHandler<?> find(String fileName)
+	{
+		ConfigHandler<?> handler = LoadedConfigs.getInstance().getByModId(fileName.substring(0, fileName.length() - ".json".length()));
+		return handler != null && handler.CONFIG_FILE.getName().equals(fileName) ? handler : null;
+	}
+}
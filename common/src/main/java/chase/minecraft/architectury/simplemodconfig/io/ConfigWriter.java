@@ -0,0 +1,461 @@
+package chase.minecraft.architectury.simplemodconfig.io;
+
+import chase.minecraft.architectury.simplemodconfig.schema.ConfigCodec;
+import chase.minecraft.architectury.simplemodconfig.schema.ConfigField;
+import chase.minecraft.architectury.simplemodconfig.schema.ConfigSchema;
+import com.google.gson.Gson;
+import com.google.gson.stream.JsonWriter;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+
+/**
+ * The ConfigWriter class writes a config object as canonical pretty printed JSON, fields are always written in schema order.
+ * The JSON is encoded into a reused per-thread buffer and hashed, if the hash matches the last written content the write is skipped.
+ * Otherwise the bytes go through a {@link FileChannel} into a sibling temp file which is then atomically moved over the config file, so a crash mid-write never leaves a truncated config behind.
+ * The JSON of {@link ConfigField#isStructured() structured} fields is kept between writes and only serialized again after {@link #changed(ConfigField)}, so a change inside one section does not re-serialize every other section.
+ */
+public final class ConfigWriter
+{
+	/**
+	 * The suffix of the temp file a config is written to before it is moved into place
+	 */
+	public static final String TEMP_SUFFIX = ".tmp";
+	private static final ThreadLocal<Encoder> ENCODERS = ThreadLocal.withInitial(Encoder::new);
+	// what a field value is written after when it is the only member of an object with the name "", see fragment
+	private static final String FRAGMENT_PREFIX = "{\n  \"\": ";
+	private static final String FRAGMENT_SUFFIX = "\n}";
+	private final Path target;
+	private volatile FsyncPolicy fsync = FsyncPolicy.NONE;
+	private volatile byte[] lastHash;
+	private volatile long lastSize = -1;
+	// the serialized values of the structured fields by ordinal, null where the field changed, "" for a null value
+	private @Nullable String[] fragments;
+	private @Nullable Object fragmentsOf;
+	
+	/**
+	 * Creates a writer for a config file
+	 *
+	 * @param target the config file
+	 */
+	public ConfigWriter(Path target)
+	{
+		this.target = target;
+	}
+	
+	/**
+	 * Writes every field of the schema to the config file in schema order, nothing is written if the content did not change since the last write or read.
+	 *
+	 * @param schema the schema of the config
+	 * @param config the config object to write
+	 * @param gson   the gson instance used to serialize the field values
+	 * @return true if the file was written, false if the content was unchanged
+	 * @throws IOException if the temp file could not be written or moved
+	 */
+	public synchronized boolean write(ConfigSchema<?> schema, Object config, Gson gson) throws IOException
+	{
+		Encoder encoder = ENCODERS.get();
+		ByteBuffer bytes = encoder.encode(schema, config, gson, fragments(schema, config, gson));
+		byte[] hash = encoder.digest(bytes);
+		// a deleted file is written again even though its last content matches
+		if (Arrays.equals(hash, lastHash) && Files.exists(target))
+		{
+			return false;
+		}
+		int size = bytes.remaining();
+		Path temp = target.resolveSibling(target.getFileName() + TEMP_SUFFIX);
+		try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING))
+		{
+			while (bytes.hasRemaining())
+			{
+				channel.write(bytes);
+			}
+			if (fsync != FsyncPolicy.NONE)
+			{
+				channel.force(true);
+			}
+		} catch (IOException | RuntimeException e)
+		{
+			Files.deleteIfExists(temp);
+			throw e;
+		} finally
+		{
+			encoder.release();
+		}
+		// remembered before the move so a file watcher never sees this write as a foreign change
+		lastHash = hash;
+		lastSize = size;
+		try
+		{
+			move(temp, target);
+		} catch (IOException e)
+		{
+			invalidate();
+			Files.deleteIfExists(temp);
+			throw e;
+		}
+		if (fsync == FsyncPolicy.FILE_AND_DIRECTORY)
+		{
+			syncDirectory(target.toAbsolutePath().getParent());
+		}
+		return true;
+	}
+	
+	/**
+	 * Marks a field as changed, its value is serialized again on the next write
+	 *
+	 * @param field the changed field
+	 */
+	public synchronized void changed(ConfigField field)
+	{
+		if (fragments != null && field.isStructured())
+		{
+			fragments[field.getOrdinal()] = null;
+		}
+	}
+	
+	/**
+	 * Marks every field as changed, used when nested values may have been changed in place without the writer being told
+	 */
+	public synchronized void changedAll()
+	{
+		fragments = null;
+	}
+	
+	/**
+	 * Serializes the structured fields that changed since the last write, the others are reused.
+	 * Fragments are kept for one config object, writing a different one starts over.
+	 *
+	 * @return the fragments indexed by ordinal, or null if the schema has no structured field
+	 */
+	private @Nullable String[] fragments(ConfigSchema<?> schema, Object config, Gson gson) throws IOException
+	{
+		if (!schema.isStructured())
+		{
+			return null;
+		}
+		if (fragments == null || fragmentsOf != config)
+		{
+			fragments = new String[schema.size()];
+			fragmentsOf = config;
+		}
+		for (ConfigField field : schema.fields())
+		{
+			if (field.isStructured() && fragments[field.getOrdinal()] == null)
+			{
+				fragments[field.getOrdinal()] = fragment(field.get(config), field, gson);
+			}
+		}
+		return fragments;
+	}
+	
+	/**
+	 * Serializes one field value exactly as it is indented inside the config object, by writing it as the only member of an object and cutting the object off
+	 */
+	private static String fragment(@Nullable Object value, ConfigField field, Gson gson) throws IOException
+	{
+		if (value == null)
+		{
+			// left out, the same as Gson does without serializeNulls
+			return "";
+		}
+		StringWriter out = new StringWriter();
+		JsonWriter json = new JsonWriter(out);
+		json.setIndent("  ");
+		json.beginObject();
+		json.name("");
+		gson.toJson(value, field.getField().getGenericType(), json);
+		json.endObject();
+		String text = out.toString();
+		return text.substring(FRAGMENT_PREFIX.length(), text.length() - FRAGMENT_SUFFIX.length());
+	}
+	
+	/**
+	 * Remembers the content that was read from the config file, a later write producing the same bytes is skipped.
+	 *
+	 * @param content the raw bytes of the config file
+	 * @return the hash of the content
+	 */
+	public byte[] remember(byte[] content)
+	{
+		byte[] hash = hash(content);
+		lastHash = hash;
+		lastSize = content.length;
+		return hash;
+	}
+	
+	/**
+	 * Checks if the given content is what this writer last wrote or read
+	 *
+	 * @param content the raw bytes of the config file
+	 * @return true if the content matches the last known content
+	 */
+	public boolean matches(byte[] content)
+	{
+		byte[] known = lastHash;
+		return known != null && content.length == lastSize && Arrays.equals(known, hash(content));
+	}
+	
+	/**
+	 * Forgets the last written content, the next write always hits the disk
+	 */
+	public void invalidate()
+	{
+		lastHash = null;
+		lastSize = -1;
+	}
+	
+	/**
+	 * Gets the size of the last written or read content
+	 *
+	 * @return the size in bytes or -1 if unknown
+	 */
+	public long getLastSize()
+	{
+		return lastSize;
+	}
+	
+	/**
+	 * Gets the hash of the last written or read content
+	 *
+	 * @return the SHA-256 digest or null if unknown
+	 */
+	public @Nullable byte[] getLastHash()
+	{
+		return lastHash;
+	}
+	
+	/**
+	 * Sets how hard a write pushes the file to disk
+	 *
+	 * @param fsync the fsync policy
+	 */
+	public void setFsyncPolicy(FsyncPolicy fsync)
+	{
+		this.fsync = fsync;
+	}
+	
+	/**
+	 * Hashes config content, this is the hash used to detect unchanged writes
+	 *
+	 * @param content the raw bytes
+	 * @return the SHA-256 digest of the content
+	 */
+	public static byte[] hash(byte[] content)
+	{
+		return ENCODERS.get().digest(ByteBuffer.wrap(content));
+	}
+	
+	private static void move(Path temp, Path target) throws IOException
+	{
+		try
+		{
+			Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+		} catch (AtomicMoveNotSupportedException e)
+		{
+			Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+		}
+	}
+	
+	private static void syncDirectory(Path directory)
+	{
+		try (FileChannel channel = FileChannel.open(directory, StandardOpenOption.READ))
+		{
+			channel.force(true);
+		} catch (IOException ignore)
+		{
+			// not every platform allows opening a directory, the rename is still atomic there
+		}
+	}
+	
+	/**
+	 * A writer that encodes UTF-8 into a reused, growable byte buffer, one instance is kept per thread.
+	 */
+	private static final class Encoder extends Writer
+	{
+		private static final int INITIAL_CAPACITY = 16 * 1024;
+		private static final int RETAINED_CAPACITY = 1024 * 1024;
+		private final CharsetEncoder encoder = StandardCharsets.UTF_8.newEncoder()
+				.onMalformedInput(CodingErrorAction.REPLACE)
+				.onUnmappableCharacter(CodingErrorAction.REPLACE);
+		private final CharBuffer chars = CharBuffer.allocate(4096);
+		private final MessageDigest digest;
+		private ByteBuffer bytes = ByteBuffer.allocate(INITIAL_CAPACITY);
+		
+		Encoder()
+		{
+			try
+			{
+				digest = MessageDigest.getInstance("SHA-256");
+			} catch (NoSuchAlgorithmException e)
+			{
+				throw new IllegalStateException(e);
+			}
+		}
+		
+		/**
+		 * Encodes the config into the byte buffer
+		 *
+		 * @param fragments the serialized structured fields, or null to serialize every field
+		 * @return the byte buffer, flipped and ready to be read
+		 */
+		@SuppressWarnings("unchecked")
+		ByteBuffer encode(ConfigSchema<?> schema, Object config, Gson gson, @Nullable String[] fragments) throws IOException
+		{
+			encoder.reset();
+			chars.clear();
+			bytes.clear();
+			JsonWriter json = new JsonWriter(this);
+			json.setIndent("  ");
+			ConfigCodec<Object> codec = (ConfigCodec<Object>) schema.getCodec();
+			if (fragments != null)
+			{
+				json.beginObject();
+				for (ConfigField field : schema.fields())
+				{
+					if (!field.isStructured())
+					{
+						json.name(field.getName());
+						gson.toJson(field.get(config), field.getField().getGenericType(), json);
+					} else if (!fragments[field.getOrdinal()].isEmpty())
+					{
+						json.name(field.getName());
+						json.jsonValue(fragments[field.getOrdinal()]);
+					}
+				}
+				json.endObject();
+			} else if (codec != null)
+			{
+				codec.write(config, json, gson);
+			} else
+			{
+				json.beginObject();
+				for (ConfigField field : schema.fields())
+				{
+					json.name(field.getName());
+					gson.toJson(field.get(config), field.getField().getGenericType(), json);
+				}
+				json.endObject();
+			}
+			encode(true);
+			while (encoder.flush(bytes).isOverflow())
+			{
+				grow();
+			}
+			return bytes.flip();
+		}
+		
+		byte[] digest(ByteBuffer content)
+		{
+			digest.reset();
+			digest.update(content.duplicate());
+			return digest.digest();
+		}
+		
+		/**
+		 * Drops an oversized buffer so one huge config does not pin its memory to the thread forever
+		 */
+		void release()
+		{
+			if (bytes.capacity() > RETAINED_CAPACITY)
+			{
+				bytes = ByteBuffer.allocate(INITIAL_CAPACITY);
+			}
+		}
+		
+		@Override
+		public void write(int c)
+		{
+			if (!chars.hasRemaining())
+			{
+				encode(false);
+			}
+			chars.put((char) c);
+		}
+		
+		@Override
+		public void write(char[] buffer, int offset, int length)
+		{
+			while (length > 0)
+			{
+				if (!chars.hasRemaining())
+				{
+					encode(false);
+				}
+				int count = Math.min(length, chars.remaining());
+				chars.put(buffer, offset, count);
+				offset += count;
+				length -= count;
+			}
+		}
+		
+		@Override
+		public void write(String str, int offset, int length)
+		{
+			while (length > 0)
+			{
+				if (!chars.hasRemaining())
+				{
+					encode(false);
+				}
+				int count = Math.min(length, chars.remaining());
+				chars.put(str, offset, offset + count);
+				offset += count;
+				length -= count;
+			}
+		}
+		
+		@Override
+		public void flush()
+		{
+		}
+		
+		@Override
+		public void close()
+		{
+		}
+		
+		private void encode(boolean endOfInput)
+		{
+			chars.flip();
+			while (true)
+			{
+				CoderResult result = encoder.encode(chars, bytes, endOfInput);
+				if (result.isOverflow())
+				{
+					grow();
+				} else
+				{
+					break;
+				}
+			}
+			// a trailing high surrogate stays in the buffer until its pair arrives
+			chars.compact();
+		}
+		
+		private void grow()
+		{
+			ByteBuffer larger = ByteBuffer.allocate(bytes.capacity() * 2);
+			bytes.flip();
+			larger.put(bytes);
+			bytes = larger;
+		}
+	}
+}
@@ -0,0 +1,20 @@
+package chase.minecraft.architectury.simplemodconfig.io;
+
+/**
+ * Controls how hard {@link ConfigWriter} pushes a written config to the storage device before it returns.
+ */
+public enum FsyncPolicy
+{
+	/**
+	 * Leave flushing to the operating system, this is the default
+	 */
+	NONE,
+	/**
+	 * Force the temp file contents to disk before it is moved over the config file
+	 */
+	FILE,
+	/**
+	 * Force the temp file contents to disk and sync the config directory after the move so the rename itself is durable
+	 */
+	FILE_AND_DIRECTORY
+}
@@ -0,0 +1,104 @@
+package chase.minecraft.architectury.simplemodconfig.io;
+
+import chase.minecraft.architectury.simplemodconfig.SimpleModConfig;
+import chase.minecraft.architectury.simplemodconfig.handlers.ConfigHandler;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The WriteBehindSaver class coalesces config saves onto a single background I/O thread.
+ * A dirty handler is flushed once per debounce window no matter how many times it was changed inside that window.
+ */
+public final class WriteBehindSaver
+{
+	private static final WriteBehindSaver instance = new WriteBehindSaver();
+	private final ScheduledThreadPoolExecutor executor;
+	private final Map<ConfigHandler<?>, ScheduledFuture<?>> pending = new ConcurrentHashMap<>();
+	
+	private WriteBehindSaver()
+	{
+		executor = new ScheduledThreadPoolExecutor(1, runnable ->
+		{
+			Thread thread = new Thread(runnable, "SimpleModConfig-IO");
+			thread.setDaemon(true);
+			return thread;
+		});
+		executor.setRemoveOnCancelPolicy(true);
+		Runtime.getRuntime().addShutdownHook(new Thread(this::flushAll, "SimpleModConfig-IO-Shutdown"));
+	}
+	
+	public static WriteBehindSaver getInstance()
+	{
+		return instance;
+	}
+	
+	/**
+	 * Marks a handler as dirty, the handler is saved once the debounce window has passed.
+	 * Marking an already dirty handler does nothing, the pending flush will pick up the latest values.
+	 *
+	 * @param handler        the config handler to save
+	 * @param debounceMillis the debounce window in milliseconds
+	 */
+	public void markDirty(ConfigHandler<?> handler, long debounceMillis)
+	{
+		pending.computeIfAbsent(handler, key -> executor.schedule(() -> flush(key), debounceMillis, TimeUnit.MILLISECONDS));
+	}
+	
+	/**
+	 * Checks if a handler has changes that have not been written yet
+	 *
+	 * @param handler the config handler
+	 * @return true if a flush is pending
+	 */
+	public boolean isDirty(ConfigHandler<?> handler)
+	{
+		return pending.containsKey(handler);
+	}
+	
+	/**
+	 * Drops the pending flush of a handler, this is used when the handler was saved synchronously.
+	 *
+	 * @param handler the config handler
+	 */
+	public void discard(ConfigHandler<?> handler)
+	{
+		ScheduledFuture<?> future = pending.remove(handler);
+		if (future != null)
+		{
+			future.cancel(false);
+		}
+	}
+	
+	/**
+	 * Writes every dirty handler on the calling thread, this is called when the server stops and when the JVM shuts down.
+	 */
+	public void flushAll()
+	{
+		for (ConfigHandler<?> handler : pending.keySet())
+		{
+			ScheduledFuture<?> future = pending.remove(handler);
+			if (future != null)
+			{
+				future.cancel(false);
+				flush(handler);
+			}
+		}
+	}
+	
+	private void flush(ConfigHandler<?> handler)
+	{
+		// removed before writing so a change made during the write schedules a new flush
+		pending.remove(handler);
+		try
+		{
+			handler.flush();
+		} catch (RuntimeException e)
+		{
+			SimpleModConfig.log.error("Unable to flush config file: {}", handler.CONFIG_FILE.getName(), e);
+		}
+	}
+}
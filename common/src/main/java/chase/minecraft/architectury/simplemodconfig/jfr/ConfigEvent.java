@@ -0,0 +1,21 @@
+package chase.minecraft.architectury.simplemodconfig.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.StackTrace;
+
+/**
+ * The base of the Java Flight Recorder events emitted by config handlers.
+ * The events are disabled by default and cost nothing until a recording enables them, for example with the simplemodconfig.jfc settings from the docs.
+ * Every event records its duration and thread like any JFR event.
+ */
+@Category("Simple Mod Config")
+@Enabled(false)
+@StackTrace(false)
+public abstract class ConfigEvent extends Event
+{
+	@Label("Config")
+	public String config;
+}
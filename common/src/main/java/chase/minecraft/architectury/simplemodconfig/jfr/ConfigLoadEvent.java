@@ -0,0 +1,35 @@
+package chase.minecraft.architectury.simplemodconfig.jfr;
+
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("simplemodconfig.ConfigLoad")
+@Label("Config Load")
+@Description("A config file was parsed and applied")
+public class ConfigLoadEvent extends ConfigEvent
+{
+	@Label("Size")
+	@DataAmount
+	public long size;
+	
+	@Label("From Cache")
+	@Description("The values were read from the binary cache instead of parsing the JSON")
+	public boolean fromCache;
+	
+	/**
+	 * Commits the event if it is enabled and passed its threshold
+	 */
+	public void report(String config, long size, boolean fromCache)
+	{
+		end();
+		if (shouldCommit())
+		{
+			this.config = config;
+			this.size = size;
+			this.fromCache = fromCache;
+			commit();
+		}
+	}
+}
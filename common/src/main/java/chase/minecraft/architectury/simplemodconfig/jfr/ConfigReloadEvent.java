@@ -0,0 +1,28 @@
+package chase.minecraft.architectury.simplemodconfig.jfr;
+
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("simplemodconfig.ConfigReload")
+@Label("Config Reload Command")
+@Description("The reload sub-command of a config was run")
+public class ConfigReloadEvent extends ConfigEvent
+{
+	@Label("Changed Fields")
+	public int changed;
+	
+	/**
+	 * Commits the event if it is enabled and passed its threshold
+	 */
+	public void report(String config, int changed)
+	{
+		end();
+		if (shouldCommit())
+		{
+			this.config = config;
+			this.changed = changed;
+			commit();
+		}
+	}
+}
@@ -0,0 +1,30 @@
+package chase.minecraft.architectury.simplemodconfig.jfr;
+
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import org.jetbrains.annotations.Nullable;
+
+@Name("simplemodconfig.ConfigReset")
+@Label("Config Reset")
+@Description("A config or one of its fields was reset to the initial values")
+public class ConfigResetEvent extends ConfigEvent
+{
+	@Label("Field")
+	@Description("The reset field, empty if the whole config was reset")
+	public String field;
+	
+	/**
+	 * Commits the event if it is enabled and passed its threshold
+	 */
+	public void report(String config, @Nullable String field)
+	{
+		end();
+		if (shouldCommit())
+		{
+			this.config = config;
+			this.field = field == null ? "" : field;
+			commit();
+		}
+	}
+}
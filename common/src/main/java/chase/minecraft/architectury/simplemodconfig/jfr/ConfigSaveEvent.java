@@ -0,0 +1,35 @@
+package chase.minecraft.architectury.simplemodconfig.jfr;
+
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("simplemodconfig.ConfigSave")
+@Label("Config Save")
+@Description("A config was encoded and written to its file")
+public class ConfigSaveEvent extends ConfigEvent
+{
+	@Label("Size")
+	@DataAmount
+	public long size;
+	
+	@Label("Written")
+	@Description("False if the write was skipped because the content did not change")
+	public boolean written;
+	
+	/**
+	 * Commits the event if it is enabled and passed its threshold
+	 */
+	public void report(String config, long size, boolean written)
+	{
+		end();
+		if (shouldCommit())
+		{
+			this.config = config;
+			this.size = size;
+			this.written = written;
+			commit();
+		}
+	}
+}
@@ -0,0 +1,29 @@
+package chase.minecraft.architectury.simplemodconfig.jfr;
+
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("simplemodconfig.ConfigSet")
+@Label("Config Set")
+@Description("Config fields were changed by a set, an edit or a typed key, this includes requesting the save")
+public class ConfigSetEvent extends ConfigEvent
+{
+	@Label("Field")
+	@Description("The changed fields, comma separated")
+	public String field;
+	
+	/**
+	 * Commits the event if it is enabled and passed its threshold
+	 */
+	public void report(String config, String field)
+	{
+		end();
+		if (shouldCommit())
+		{
+			this.config = config;
+			this.field = field;
+			commit();
+		}
+	}
+}
@@ -0,0 +1,55 @@
+package chase.minecraft.architectury.simplemodconfig.keys;
+
+import chase.minecraft.architectury.simplemodconfig.handlers.ConfigHandler;
+
+/**
+ * A typed handle to a boolean config field, reads and writes never box the value.
+ */
+public final class BooleanKey extends ConfigKey
+{
+	public BooleanKey(ConfigHandler<?> handler, String name)
+	{
+		super(handler, name, boolean.class);
+	}
+	
+	/**
+	 * Gets the current value
+	 *
+	 * @return the value of the field
+	 */
+	public boolean getBoolean()
+	{
+		return field.getBoolean(read());
+	}
+	
+	/**
+	 * Sets the value and saves the config, setting the current value again does nothing.
+	 *
+	 * @param value the new value
+	 */
+	public void setBoolean(boolean value)
+	{
+		// same monitor as ConfigHandler#edit so a key write never interleaves with a transaction
+		synchronized (handler)
+		{
+			Object config = handler.getConfig();
+			boolean old = field.getBoolean(config);
+			if (old == value)
+			{
+				return;
+			}
+			field.setBoolean(config, value);
+			handler.markChanged(field, old);
+		}
+	}
+	
+	/**
+	 * Gets the initial value
+	 *
+	 * @return the initial value of the field
+	 */
+	public boolean getInitialBoolean()
+	{
+		return field.getBoolean(handler.getInitialConfig());
+	}
+}
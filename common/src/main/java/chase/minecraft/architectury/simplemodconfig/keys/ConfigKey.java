@@ -0,0 +1,147 @@
+package chase.minecraft.architectury.simplemodconfig.keys;
+
+import chase.minecraft.architectury.simplemodconfig.annotation.SimpleConfig;
+import chase.minecraft.architectury.simplemodconfig.handlers.ConfigHandler;
+import chase.minecraft.architectury.simplemodconfig.schema.ConfigField;
+
+/**
+ * The ConfigKey class is a typed handle to a single config field.
+ * The field is resolved once when the key is created, so reading through a key never does a name lookup and the primitive keys never box.
+ * <pre>{@code
+ * private static final IntKey RANGE = configHandler.intKey("RangeNumber");
+ * ...
+ * int range = RANGE.getInt();
+ * }</pre>
+ */
+public abstract class ConfigKey
+{
+	protected final ConfigHandler<?> handler;
+	protected final ConfigField field;
+	
+	protected ConfigKey(ConfigHandler<?> handler, String name, Class<?> type)
+	{
+		ConfigField field = handler.getSchema().field(name);
+		if (field == null)
+		{
+			throw new IllegalArgumentException("%s does not exist in %s".formatted(name, handler.CONFIG_FILE.getName()));
+		}
+		if (!type.isAssignableFrom(field.getType()))
+		{
+			throw new IllegalArgumentException("%s is a %s, not a %s".formatted(name, field.getType().getSimpleName(), type.getSimpleName()));
+		}
+		this.handler = handler;
+		this.field = field;
+	}
+	
+	/**
+	 * Creates the key that matches the type of the field, this is an {@link IntKey} for an int field, a {@link BooleanKey} for a boolean field and so on.
+	 *
+	 * @param handler the config handler
+	 * @param name    the field name
+	 * @return the key
+	 * @throws IllegalArgumentException if the field does not exist
+	 */
+	public static ConfigKey of(ConfigHandler<?> handler, String name)
+	{
+		ConfigField field = handler.getSchema().field(name);
+		Class<?> type = field == null ? Object.class : field.getType();
+		if (type == int.class)
+			return new IntKey(handler, name);
+		if (type == long.class)
+			return new LongKey(handler, name);
+		if (type == float.class)
+			return new FloatKey(handler, name);
+		if (type == double.class)
+			return new DoubleKey(handler, name);
+		if (type == boolean.class)
+			return new BooleanKey(handler, name);
+		return new ObjectKey<>(handler, name, Object.class);
+	}
+	
+	/**
+	 * Gets the object reads go through, the published snapshot when the handler has snapshots enabled so reads on worker threads need no lock
+	 *
+	 * @return the config to read from
+	 */
+	protected Object read()
+	{
+		return handler.isSnapshots() ? handler.getSnapshot() : handler.getConfig();
+	}
+	
+	/**
+	 * Gets the value of the field, boxed
+	 *
+	 * @return the current value
+	 */
+	public Object getValue()
+	{
+		return handler.get(field);
+	}
+	
+	/**
+	 * Sets the value of the field through a single change transaction
+	 *
+	 * @param value the new value
+	 * @throws IllegalArgumentException if the value is not valid for the field
+	 */
+	public void setValue(Object value)
+	{
+		handler.edit(transaction -> transaction.set(field.getName(), value));
+	}
+	
+	/**
+	 * Gets the initial value of the field, boxed
+	 *
+	 * @return the initial value
+	 */
+	public Object getInitialValue()
+	{
+		return field.get(handler.getInitialConfig());
+	}
+	
+	/**
+	 * Gets the field name
+	 *
+	 * @return the field name
+	 */
+	public String getName()
+	{
+		return field.getName();
+	}
+	
+	/**
+	 * Gets the config options of the field
+	 *
+	 * @return the config options
+	 */
+	public SimpleConfig getOptions()
+	{
+		return field.getOptions();
+	}
+	
+	/**
+	 * Gets the schema field this key is bound to
+	 *
+	 * @return the field
+	 */
+	public ConfigField getField()
+	{
+		return field;
+	}
+	
+	/**
+	 * Gets the handler this key is bound to
+	 *
+	 * @return the config handler
+	 */
+	public ConfigHandler<?> getHandler()
+	{
+		return handler;
+	}
+	
+	@Override
+	public String toString()
+	{
+		return "%s=%s".formatted(field.getName(), getValue());
+	}
+}
@@ -0,0 +1,57 @@
+package chase.minecraft.architectury.simplemodconfig.keys;
+
+import chase.minecraft.architectury.simplemodconfig.handlers.ConfigHandler;
+
+/**
+ * A typed handle to a double config field, reads and writes never box the value.
+ */
+public final class DoubleKey extends ConfigKey
+{
+	public DoubleKey(ConfigHandler<?> handler, String name)
+	{
+		super(handler, name, double.class);
+	}
+	
+	/**
+	 * Gets the current value
+	 *
+	 * @return the value of the field
+	 */
+	public double getDouble()
+	{
+		return field.getDouble(read());
+	}
+	
+	/**
+	 * Sets the value and saves the config, setting the current value again does nothing.
+	 *
+	 * @param value the new value
+	 * @throws IllegalArgumentException if the value is outside of the field's min and max
+	 */
+	public void setDouble(double value)
+	{
+		field.checkRange(value);
+		// same monitor as ConfigHandler#edit so a key write never interleaves with a transaction
+		synchronized (handler)
+		{
+			Object config = handler.getConfig();
+			double old = field.getDouble(config);
+			if (old == value)
+			{
+				return;
+			}
+			field.setDouble(config, value);
+			handler.markChanged(field, old);
+		}
+	}
+	
+	/**
+	 * Gets the initial value
+	 *
+	 * @return the initial value of the field
+	 */
+	public double getInitialDouble()
+	{
+		return field.getDouble(handler.getInitialConfig());
+	}
+}
@@ -0,0 +1,57 @@
+package chase.minecraft.architectury.simplemodconfig.keys;
+
+import chase.minecraft.architectury.simplemodconfig.handlers.ConfigHandler;
+
+/**
+ * A typed handle to a float config field, reads and writes never box the value.
+ */
+public final class FloatKey extends ConfigKey
+{
+	public FloatKey(ConfigHandler<?> handler, String name)
+	{
+		super(handler, name, float.class);
+	}
+	
+	/**
+	 * Gets the current value
+	 *
+	 * @return the value of the field
+	 */
+	public float getFloat()
+	{
+		return field.getFloat(read());
+	}
+	
+	/**
+	 * Sets the value and saves the config, setting the current value again does nothing.
+	 *
+	 * @param value the new value
+	 * @throws IllegalArgumentException if the value is outside of the field's min and max
+	 */
+	public void setFloat(float value)
+	{
+		field.checkRange(value);
+		// same monitor as ConfigHandler#edit so a key write never interleaves with a transaction
+		synchronized (handler)
+		{
+			Object config = handler.getConfig();
+			float old = field.getFloat(config);
+			if (old == value)
+			{
+				return;
+			}
+			field.setFloat(config, value);
+			handler.markChanged(field, old);
+		}
+	}
+	
+	/**
+	 * Gets the initial value
+	 *
+	 * @return the initial value of the field
+	 */
+	public float getInitialFloat()
+	{
+		return field.getFloat(handler.getInitialConfig());
+	}
+}
@@ -0,0 +1,57 @@
+package chase.minecraft.architectury.simplemodconfig.keys;
+
+import chase.minecraft.architectury.simplemodconfig.handlers.ConfigHandler;
+
+/**
+ * A typed handle to an int config field, reads and writes never box the value.
+ */
+public final class IntKey extends ConfigKey
+{
+	public IntKey(ConfigHandler<?> handler, String name)
+	{
+		super(handler, name, int.class);
+	}
+	
+	/**
+	 * Gets the current value
+	 *
+	 * @return the value of the field
+	 */
+	public int getInt()
+	{
+		return field.getInt(read());
+	}
+	
+	/**
+	 * Sets the value and saves the config, setting the current value again does nothing.
+	 *
+	 * @param value the new value
+	 * @throws IllegalArgumentException if the value is outside of the field's min and max
+	 */
+	public void setInt(int value)
+	{
+		field.checkRange(value);
+		// same monitor as ConfigHandler#edit so a key write never interleaves with a transaction
+		synchronized (handler)
+		{
+			Object config = handler.getConfig();
+			int old = field.getInt(config);
+			if (old == value)
+			{
+				return;
+			}
+			field.setInt(config, value);
+			handler.markChanged(field, old);
+		}
+	}
+	
+	/**
+	 * Gets the initial value
+	 *
+	 * @return the initial value of the field
+	 */
+	public int getInitialInt()
+	{
+		return field.getInt(handler.getInitialConfig());
+	}
+}
@@ -0,0 +1,50 @@
+package chase.minecraft.architectury.simplemodconfig.keys;
+
+import chase.minecraft.architectury.simplemodconfig.handlers.ConfigHandler;
+
+/**
+ * A typed handle to a config field holding an object, like a String
+ *
+ * @param <V> the type of the field
+ */
+public final class ObjectKey<V> extends ConfigKey
+{
+	private final Class<V> type;
+	
+	public ObjectKey(ConfigHandler<?> handler, String name, Class<V> type)
+	{
+		super(handler, name, type);
+		this.type = type;
+	}
+	
+	/**
+	 * Gets the current value
+	 *
+	 * @return the value of the field
+	 */
+	public V get()
+	{
+		return type.cast(handler.get(field));
+	}
+	
+	/**
+	 * Sets the value through a single change transaction
+	 *
+	 * @param value the new value
+	 * @throws IllegalArgumentException if the value is not one of the field's options
+	 */
+	public void set(V value)
+	{
+		setValue(value);
+	}
+	
+	/**
+	 * Gets the initial value
+	 *
+	 * @return the initial value of the field
+	 */
+	public V getInitial()
+	{
+		return type.cast(field.get(handler.getInitialConfig()));
+	}
+}
@@ -0,0 +1,137 @@
+package chase.minecraft.architectury.simplemodconfig.metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Runtime metrics of a {@link chase.minecraft.architectury.simplemodconfig.handlers.ConfigHandler}, how often its config was loaded, saved and set, and how long that took.
+ * Every counter is a striped {@link LongAdder} and every timing goes into a {@link LatencyHistogram}, recording never takes a lock.
+ */
+public final class ConfigMetrics
+{
+	private final LatencyHistogram loads = new LatencyHistogram();
+	private final LatencyHistogram saves = new LatencyHistogram();
+	private final LatencyHistogram sets = new LatencyHistogram();
+	private final LongAdder writes = new LongAdder();
+	private final LongAdder getMisses = new LongAdder();
+	private final LongAdder parseFailures = new LongAdder();
+	
+	/**
+	 * Sums the metrics of several configs
+	 *
+	 * @param metrics the metrics to sum
+	 * @return new metrics holding the totals
+	 */
+	public static ConfigMetrics sum(Iterable<ConfigMetrics> metrics)
+	{
+		ConfigMetrics total = new ConfigMetrics();
+		for (ConfigMetrics other : metrics)
+		{
+			total.loads.add(other.loads);
+			total.saves.add(other.saves);
+			total.sets.add(other.sets);
+			total.writes.add(other.writes.sum());
+			total.getMisses.add(other.getMisses.sum());
+			total.parseFailures.add(other.parseFailures.sum());
+		}
+		return total;
+	}
+	
+	/**
+	 * Records a load of the config file
+	 *
+	 * @param nanos how long reading, parsing and applying the file took
+	 */
+	public void recordLoad(long nanos)
+	{
+		loads.record(nanos);
+	}
+	
+	/**
+	 * Records a save of the config
+	 *
+	 * @param nanos   how long encoding and writing the file took
+	 * @param written false if the write was skipped because the content did not change
+	 */
+	public void recordSave(long nanos, boolean written)
+	{
+		saves.record(nanos);
+		if (written)
+		{
+			writes.increment();
+		}
+	}
+	
+	/**
+	 * Records a change made by a set, an edit or a typed key
+	 *
+	 * @param nanos how long applying the change and requesting the save took
+	 */
+	public void recordSet(long nanos)
+	{
+		sets.record(nanos);
+	}
+	
+	/**
+	 * Records a read of a field that does not exist
+	 */
+	public void recordGetMiss()
+	{
+		getMisses.increment();
+	}
+	
+	/**
+	 * Records a config file that could not be parsed
+	 */
+	public void recordParseFailure()
+	{
+		parseFailures.increment();
+	}
+	
+	public LatencyHistogram getLoads()
+	{
+		return loads;
+	}
+	
+	public LatencyHistogram getSaves()
+	{
+		return saves;
+	}
+	
+	public LatencyHistogram getSets()
+	{
+		return sets;
+	}
+	
+	/**
+	 * Gets the number of saves that wrote the file, saves of unchanged content are skipped
+	 *
+	 * @return the number of writes
+	 */
+	public long getWrites()
+	{
+		return writes.sum();
+	}
+	
+	public long getGetMisses()
+	{
+		return getMisses.sum();
+	}
+	
+	public long getParseFailures()
+	{
+		return parseFailures.sum();
+	}
+	
+	/**
+	 * Clears every counter and timing
+	 */
+	public void reset()
+	{
+		loads.reset();
+		saves.reset();
+		sets.reset();
+		writes.reset();
+		getMisses.reset();
+		parseFailures.reset();
+	}
+}
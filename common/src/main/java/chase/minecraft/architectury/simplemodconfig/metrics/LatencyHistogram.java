@@ -0,0 +1,132 @@
+package chase.minecraft.architectury.simplemodconfig.metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A lock free latency histogram with power of two buckets, bucket n counts durations below 2^n nanoseconds.
+ * Recording is two {@link LongAdder} increments, so it is cheap enough to leave on and does not contend between threads.
+ * Percentiles are reported as the upper bound of their bucket, which is at most twice the real value.
+ */
+public final class LatencyHistogram
+{
+	/**
+	 * 2^40 nanoseconds is about 18 minutes, longer durations are counted in the last bucket
+	 */
+	private static final int BUCKETS = 41;
+	private final LongAdder[] buckets = new LongAdder[BUCKETS];
+	private final LongAdder totalNanos = new LongAdder();
+	
+	public LatencyHistogram()
+	{
+		for (int i = 0; i < BUCKETS; i++)
+		{
+			buckets[i] = new LongAdder();
+		}
+	}
+	
+	/**
+	 * Records one duration
+	 *
+	 * @param nanos the duration in nanoseconds
+	 */
+	public void record(long nanos)
+	{
+		nanos = Math.max(0, nanos);
+		buckets[Math.min(BUCKETS - 1, 64 - Long.numberOfLeadingZeros(nanos))].increment();
+		totalNanos.add(nanos);
+	}
+	
+	/**
+	 * Adds the recorded durations of another histogram to this one
+	 *
+	 * @param other the histogram to add
+	 */
+	public void add(LatencyHistogram other)
+	{
+		for (int i = 0; i < BUCKETS; i++)
+		{
+			buckets[i].add(other.buckets[i].sum());
+		}
+		totalNanos.add(other.totalNanos.sum());
+	}
+	
+	/**
+	 * Gets the number of recorded durations
+	 *
+	 * @return the count
+	 */
+	public long getCount()
+	{
+		long count = 0;
+		for (LongAdder bucket : buckets)
+		{
+			count += bucket.sum();
+		}
+		return count;
+	}
+	
+	/**
+	 * Gets the sum of every recorded duration
+	 *
+	 * @return the total in nanoseconds
+	 */
+	public long getTotalNanos()
+	{
+		return totalNanos.sum();
+	}
+	
+	/**
+	 * Gets the mean duration
+	 *
+	 * @return the mean in nanoseconds, 0 if nothing was recorded
+	 */
+	public double getMeanNanos()
+	{
+		long count = getCount();
+		return count == 0 ? 0 : (double) getTotalNanos() / count;
+	}
+	
+	/**
+	 * Gets an upper bound of a percentile, the values are read without a lock so they may be off by durations recorded while reading
+	 *
+	 * @param percentile the percentile between 0 and 1, for example 0.99
+	 * @return the upper bound of the bucket holding the percentile in nanoseconds, 0 if nothing was recorded
+	 */
+	public long getPercentileNanos(double percentile)
+	{
+		long[] counts = new long[BUCKETS];
+		long count = 0;
+		for (int i = 0; i < BUCKETS; i++)
+		{
+			counts[i] = buckets[i].sum();
+			count += counts[i];
+		}
+		if (count == 0)
+		{
+			return 0;
+		}
+		long rank = Math.max(1, (long) Math.ceil(count * Math.min(1, Math.max(0, percentile))));
+		long seen = 0;
+		for (int i = 0; i < BUCKETS; i++)
+		{
+			seen += counts[i];
+			if (seen >= rank)
+			{
+				return 1L << i;
+			}
+		}
+		return 1L << (BUCKETS - 1);
+	}
+	
+	/**
+	 * Clears every recorded duration
+	 */
+	public void reset()
+	{
+		for (LongAdder bucket : buckets)
+		{
+			bucket.reset();
+		}
+		totalNanos.reset();
+	}
+}
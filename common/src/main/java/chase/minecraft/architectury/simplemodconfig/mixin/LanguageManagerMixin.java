@@ -0,0 +1,23 @@
+package chase.minecraft.architectury.simplemodconfig.mixin;
+
+import chase.minecraft.architectury.simplemodconfig.handlers.ConfigHandler;
+import net.minecraft.client.resources.language.LanguageManager;
+import net.minecraft.server.packs.resources.ResourceManager;
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.injection.At;
+import org.spongepowered.asm.mixin.injection.Inject;
+import org.spongepowered.asm.mixin.injection.callback.CallbackInfo;
+
+@Mixin(LanguageManager.class)
+public class LanguageManagerMixin
+{
+	
+	/**
+	 * The language is reloaded after it was changed and on every resource reload, cached config tooltips are rebuilt in the new language
+	 */
+	@Inject(at = @At("TAIL"), method = "onResourceManagerReload")
+	void onResourceManagerReload(ResourceManager resourceManager, CallbackInfo cb)
+	{
+		ConfigHandler.invalidateComponents();
+	}
+}
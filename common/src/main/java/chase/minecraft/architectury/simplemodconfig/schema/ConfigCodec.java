@@ -0,0 +1,97 @@
+package chase.minecraft.architectury.simplemodconfig.schema;
+
+import com.google.gson.Gson;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+
+/**
+ * A JSON codec for one config class, generated at compile time by the simple-mod-config-processor annotation processor.
+ * Generated codecs read and write the fields directly instead of going through Gson's reflective type adapter, Gson is only used for field types other than primitives and Strings.
+ * {@link ConfigSchema#getCodec()} finds the codec of a config class by name, it is named after the config class with {@link #SUFFIX} appended.
+ *
+ * @param <T> the config class
+ */
+public interface ConfigCodec<T>
+{
+	/**
+	 * The suffix of the generated codec class, nested classes use their binary name with the '$' replaced by '_'
+	 */
+	String SUFFIX = "_SimpleConfigCodec";
+	
+	/**
+	 * Gets the config class this codec was generated for
+	 *
+	 * @return the config class
+	 */
+	Class<T> getType();
+	
+	/**
+	 * Gets the names of the config fields in schema order
+	 *
+	 * @return the field names
+	 */
+	String[] getFieldNames();
+	
+	/**
+	 * Writes every config field as a JSON object in schema order
+	 *
+	 * @param config the config object
+	 * @param out    the JSON writer
+	 * @param gson   the gson instance used for field types the codec does not handle itself
+	 * @throws IOException if the writer fails
+	 */
+	void write(T config, JsonWriter out, Gson gson) throws IOException;
+	
+	/**
+	 * Reads a JSON object into a new config object, fields missing from the JSON keep their initial values and unknown names are skipped.
+	 *
+	 * @param in   the JSON reader
+	 * @param gson the gson instance used for field types the codec does not handle itself
+	 * @return the new config object
+	 * @throws IOException if the JSON is malformed
+	 */
+	T read(JsonReader in, Gson gson) throws IOException;
+	
+	/**
+	 * Reads a String value the same way Gson does, numbers and booleans are read as their text. Used by generated codecs.
+	 *
+	 * @param in the JSON reader
+	 * @return the string or null if the value is a JSON null
+	 * @throws IOException if the JSON is malformed
+	 */
+	static @Nullable String nextString(JsonReader in) throws IOException
+	{
+		JsonToken token = in.peek();
+		if (token == JsonToken.NULL)
+		{
+			in.nextNull();
+			return null;
+		}
+		if (token == JsonToken.BOOLEAN)
+		{
+			return Boolean.toString(in.nextBoolean());
+		}
+		return in.nextString();
+	}
+	
+	/**
+	 * Checks if the next value is a JSON null and consumes it, primitive fields keep their value in that case like they do with Gson. Used by generated codecs.
+	 *
+	 * @param in the JSON reader
+	 * @return true if a null was consumed
+	 * @throws IOException if the JSON is malformed
+	 */
+	static boolean skipNull(JsonReader in) throws IOException
+	{
+		if (in.peek() == JsonToken.NULL)
+		{
+			in.nextNull();
+			return true;
+		}
+		return false;
+	}
+}
@@ -0,0 +1,422 @@
+package chase.minecraft.architectury.simplemodconfig.schema;
+
+import chase.minecraft.architectury.simplemodconfig.annotation.SimpleConfig;
+import org.jetbrains.annotations.Nullable;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.util.List;
+
+/**
+ * A single entry of a {@link ConfigSchema}, holds the cached {@link SimpleConfig} metadata and pre-bound accessors for one config field.
+ */
+public final class ConfigField
+{
+	private static final MethodType GETTER_TYPE = MethodType.methodType(Object.class, Object.class);
+	private static final MethodType SETTER_TYPE = MethodType.methodType(void.class, Object.class, Object.class);
+	
+	private final String name;
+	private final int ordinal;
+	private final Field field;
+	private final SimpleConfig options;
+	private final MethodHandle getter;
+	private final MethodHandle setter;
+	private final MethodHandle converter;
+	private final MethodHandle typedGetter;
+	private final MethodHandle typedSetter;
+	private final boolean structured;
+	
+	ConfigField(Field field, SimpleConfig options, int ordinal) throws IllegalAccessException
+	{
+		this.name = field.getName();
+		this.ordinal = ordinal;
+		this.field = field;
+		this.options = options;
+		field.setAccessible(true);
+		MethodHandles.Lookup lookup = MethodHandles.lookup();
+		this.getter = lookup.unreflectGetter(field).asType(GETTER_TYPE);
+		this.setter = lookup.unreflectSetter(field).asType(SETTER_TYPE);
+		// unboxes, widens and re-boxes exactly like the setter so a converted value can always be stored
+		this.converter = MethodHandles.identity(field.getType()).asType(GETTER_TYPE);
+		// exact (Object)type and (Object, type)void handles, used by the primitive accessors so reads never box
+		this.typedGetter = lookup.unreflectGetter(field).asType(MethodType.methodType(field.getType(), Object.class));
+		this.typedSetter = lookup.unreflectSetter(field).asType(MethodType.methodType(void.class, Object.class, field.getType()));
+		this.structured = isStructured(field.getType());
+	}
+	
+	/**
+	 * Checks if values of a type can hold other values, everything except primitives, their wrappers, Strings and enums
+	 *
+	 * @param type the type
+	 * @return true if the type is a section or collection
+	 */
+	public static boolean isStructured(Class<?> type)
+	{
+		return !type.isPrimitive() && type != String.class && !type.isEnum() && !Number.class.isAssignableFrom(type) && type != Boolean.class && type != Character.class;
+	}
+	
+	/**
+	 * Reads the value of this field from a config object.
+	 *
+	 * @param instance the config object
+	 * @return the boxed value of the field
+	 */
+	public Object get(Object instance)
+	{
+		try
+		{
+			return (Object) getter.invokeExact(instance);
+		} catch (Throwable e)
+		{
+			throw rethrow(e);
+		}
+	}
+	
+	/**
+	 * Writes a value to this field of a config object, primitive fields are unboxed and widened the same way {@link Field#set(Object, Object)} does.
+	 *
+	 * @param instance the config object
+	 * @param value    the new value
+	 * @throws ClassCastException   if the value is not assignable to the field
+	 * @throws NullPointerException if the value is null and the field is primitive
+	 */
+	public void set(Object instance, Object value)
+	{
+		try
+		{
+			setter.invokeExact(instance, value);
+		} catch (Throwable e)
+		{
+			throw rethrow(e);
+		}
+	}
+	
+	/**
+	 * Reads the value of an int field without boxing
+	 *
+	 * @param instance the config object
+	 * @return the value of the field
+	 */
+	public int getInt(Object instance)
+	{
+		try
+		{
+			return (int) typedGetter.invokeExact(instance);
+		} catch (Throwable e)
+		{
+			throw rethrow(e);
+		}
+	}
+	
+	/**
+	 * Writes the value of an int field without boxing
+	 *
+	 * @param instance the config object
+	 * @param value    the new value
+	 */
+	public void setInt(Object instance, int value)
+	{
+		try
+		{
+			typedSetter.invokeExact(instance, value);
+		} catch (Throwable e)
+		{
+			throw rethrow(e);
+		}
+	}
+	
+	/**
+	 * Reads the value of a long field without boxing
+	 *
+	 * @param instance the config object
+	 * @return the value of the field
+	 */
+	public long getLong(Object instance)
+	{
+		try
+		{
+			return (long) typedGetter.invokeExact(instance);
+		} catch (Throwable e)
+		{
+			throw rethrow(e);
+		}
+	}
+	
+	/**
+	 * Writes the value of a long field without boxing
+	 *
+	 * @param instance the config object
+	 * @param value    the new value
+	 */
+	public void setLong(Object instance, long value)
+	{
+		try
+		{
+			typedSetter.invokeExact(instance, value);
+		} catch (Throwable e)
+		{
+			throw rethrow(e);
+		}
+	}
+	
+	/**
+	 * Reads the value of a float field without boxing
+	 *
+	 * @param instance the config object
+	 * @return the value of the field
+	 */
+	public float getFloat(Object instance)
+	{
+		try
+		{
+			return (float) typedGetter.invokeExact(instance);
+		} catch (Throwable e)
+		{
+			throw rethrow(e);
+		}
+	}
+	
+	/**
+	 * Writes the value of a float field without boxing
+	 *
+	 * @param instance the config object
+	 * @param value    the new value
+	 */
+	public void setFloat(Object instance, float value)
+	{
+		try
+		{
+			typedSetter.invokeExact(instance, value);
+		} catch (Throwable e)
+		{
+			throw rethrow(e);
+		}
+	}
+	
+	/**
+	 * Reads the value of a double field without boxing
+	 *
+	 * @param instance the config object
+	 * @return the value of the field
+	 */
+	public double getDouble(Object instance)
+	{
+		try
+		{
+			return (double) typedGetter.invokeExact(instance);
+		} catch (Throwable e)
+		{
+			throw rethrow(e);
+		}
+	}
+	
+	/**
+	 * Writes the value of a double field without boxing
+	 *
+	 * @param instance the config object
+	 * @param value    the new value
+	 */
+	public void setDouble(Object instance, double value)
+	{
+		try
+		{
+			typedSetter.invokeExact(instance, value);
+		} catch (Throwable e)
+		{
+			throw rethrow(e);
+		}
+	}
+	
+	/**
+	 * Reads the value of a boolean field without boxing
+	 *
+	 * @param instance the config object
+	 * @return the value of the field
+	 */
+	public boolean getBoolean(Object instance)
+	{
+		try
+		{
+			return (boolean) typedGetter.invokeExact(instance);
+		} catch (Throwable e)
+		{
+			throw rethrow(e);
+		}
+	}
+	
+	/**
+	 * Writes the value of a boolean field without boxing
+	 *
+	 * @param instance the config object
+	 * @param value    the new value
+	 */
+	public void setBoolean(Object instance, boolean value)
+	{
+		try
+		{
+			typedSetter.invokeExact(instance, value);
+		} catch (Throwable e)
+		{
+			throw rethrow(e);
+		}
+	}
+	
+	/**
+	 * Checks a number against the min and max of this field without boxing it
+	 *
+	 * @param value the number to check
+	 * @throws IllegalArgumentException if the number is outside of min and max
+	 */
+	public void checkRange(double value)
+	{
+		checkRange(name, options, value, field.getType());
+	}
+	
+	private static void checkRange(String name, SimpleConfig options, double value, Class<?> type)
+	{
+		boolean hasMin = options.min() != Double.MIN_VALUE;
+		boolean hasMax = options.max() != Double.MAX_VALUE;
+		if ((hasMin && value < options.min()) || (hasMax && value > options.max()))
+		{
+			String range = !hasMin ? "at most %s".formatted(format(options.max(), type)) : !hasMax ? "at least %s".formatted(format(options.min(), type)) : "between %s and %s".formatted(format(options.min(), type), format(options.max(), type));
+			throw new IllegalArgumentException("%s can not be set to %s, it must be %s".formatted(name, format(value, type), range));
+		}
+	}
+	
+	/**
+	 * Formats a number the way a value of the type is written, so whole numbers do not get a trailing .0
+	 */
+	private static String format(double value, Class<?> type)
+	{
+		Class<?> wrapped = MethodType.methodType(type).wrap().returnType();
+		if (wrapped == Integer.class || wrapped == Long.class || wrapped == Short.class || wrapped == Byte.class)
+			return Long.toString((long) value);
+		if (wrapped == Float.class)
+			return Float.toString((float) value);
+		return Double.toString(value);
+	}
+	
+	/**
+	 * Checks a converted value against min, max and options
+	 *
+	 * @param name    the field name or path, used in the message
+	 * @param options the constraints
+	 * @param value   the converted value
+	 * @throws IllegalArgumentException if the value is outside of min and max or is not one of the options
+	 */
+	static void check(String name, SimpleConfig options, @Nullable Object value)
+	{
+		if (value instanceof Number number)
+		{
+			checkRange(name, options, number.doubleValue(), number.getClass());
+		} else if (value instanceof String string && options.options().length > 0 && !List.of(options.options()).contains(string))
+		{
+			throw new IllegalArgumentException("%s can not be set to '%s', it must be one of %s".formatted(name, value, String.join(", ", options.options())));
+		}
+	}
+	
+	/**
+	 * Converts a value to the type of this field and checks it against the {@link SimpleConfig} constraints.
+	 *
+	 * @param value the value to check
+	 * @return the value converted to the field type, boxed
+	 * @throws IllegalArgumentException if the value has the wrong type, is outside of min and max or is not one of the options
+	 */
+	public Object coerce(@Nullable Object value)
+	{
+		Object converted;
+		try
+		{
+			converted = (Object) converter.invokeExact(value);
+		} catch (ClassCastException | NullPointerException e)
+		{
+			throw new IllegalArgumentException("%s can not be set to '%s', expected %s".formatted(name, value, getType().getSimpleName()));
+		} catch (Throwable e)
+		{
+			throw new IllegalStateException(e);
+		}
+		check(name, options, converted);
+		return converted;
+	}
+	
+	/**
+	 * Gets the field name, this is also the json key
+	 *
+	 * @return the field name
+	 */
+	public String getName()
+	{
+		return name;
+	}
+	
+	/**
+	 * Gets the position of this field in the schema, fields are ordered by {@link SimpleConfig#index()}
+	 *
+	 * @return the position of the field
+	 */
+	public int getOrdinal()
+	{
+		return ordinal;
+	}
+	
+	/**
+	 * Gets the declared type of the field
+	 *
+	 * @return the field type
+	 */
+	public Class<?> getType()
+	{
+		return field.getType();
+	}
+	
+	/**
+	 * Checks if the field is a section or collection whose values can be addressed by a {@link ConfigPath}
+	 *
+	 * @return true if the field holds other values
+	 */
+	public boolean isStructured()
+	{
+		return structured;
+	}
+	
+	/**
+	 * Gets the cached annotation of the field
+	 *
+	 * @return the config options
+	 */
+	public SimpleConfig getOptions()
+	{
+		return options;
+	}
+	
+	/**
+	 * Gets the underlying reflective field
+	 *
+	 * @return the field
+	 */
+	public Field getField()
+	{
+		return field;
+	}
+	
+	private RuntimeException rethrow(Throwable e)
+	{
+		if (e instanceof RuntimeException runtime)
+		{
+			return runtime;
+		}
+		if (e instanceof Error error)
+		{
+			throw error;
+		}
+		return new IllegalStateException("Unable to access config field: %s".formatted(name), e);
+	}
+	
+	@Override
+	public String toString()
+	{
+		return "%s(%s)".formatted(name, field.getType().getSimpleName());
+	}
+}
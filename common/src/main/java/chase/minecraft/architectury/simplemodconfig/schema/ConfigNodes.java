@@ -0,0 +1,481 @@
+package chase.minecraft.architectury.simplemodconfig.schema;
+
+import chase.minecraft.architectury.simplemodconfig.annotation.SimpleConfig;
+import com.google.common.reflect.TypeToken;
+import com.google.gson.Gson;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonParseException;
+import com.google.gson.JsonParser;
+import com.google.gson.JsonPrimitive;
+import org.jetbrains.annotations.Nullable;
+
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Array;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.Type;
+import java.util.*;
+
+/**
+ * Reads and writes values inside the structured fields of a config, addressed by a {@link ConfigPath}.
+ * A path steps into maps by key, into lists and arrays by index and into any other object by its public fields.
+ * Fields of nested objects can have their own {@link SimpleConfig} annotation, a value is checked against the closest annotation on its path and the field's annotation otherwise.
+ */
+public final class ConfigNodes
+{
+	private static final Gson GSON = new Gson();
+	private static final ClassValue<Map<String, Field>> MEMBERS = new ClassValue<>()
+	{
+		@Override
+		protected Map<String, Field> computeValue(Class<?> type)
+		{
+			List<Field> members = new ArrayList<>();
+			for (Field member : type.getFields())
+			{
+				int modifiers = member.getModifiers();
+				if (!Modifier.isStatic(modifiers) && !Modifier.isFinal(modifiers) && !Modifier.isTransient(modifiers))
+				{
+					members.add(member);
+				}
+			}
+			// the same order ConfigSchema uses for top level fields
+			members.sort(Comparator.comparingInt(member -> member.isAnnotationPresent(SimpleConfig.class) ? member.getAnnotation(SimpleConfig.class).index() : 0));
+			Map<String, Field> byName = new LinkedHashMap<>();
+			for (Field member : members)
+			{
+				byName.put(member.getName(), member);
+			}
+			return Collections.unmodifiableMap(byName);
+		}
+	};
+	
+	private ConfigNodes()
+	{
+	}
+	
+	/**
+	 * Reads the value at a path
+	 *
+	 * @param field  the top level field the path starts at
+	 * @param config the config object
+	 * @param path   the path
+	 * @return the value, or null if a map has no entry for the key or the index is one past the end of a list
+	 * @throws IllegalArgumentException if the path does not exist
+	 */
+	public static @Nullable Object get(ConfigField field, Object config, ConfigPath path)
+	{
+		return path.isField() ? field.get(config) : locate(field, config, path).get();
+	}
+	
+	/**
+	 * Converts a value to the type declared at a path and checks it against the closest {@link SimpleConfig} annotation.
+	 * Strings are parsed as JSON when the path does not hold a String, so command and text box input can be handed in as is.
+	 *
+	 * @param field  the top level field the path starts at
+	 * @param config the config object
+	 * @param path   the path, deeper than the field
+	 * @param value  the new value
+	 * @return the converted value
+	 * @throws IllegalArgumentException if the path does not exist, the value can not be converted or is out of range
+	 */
+	public static @Nullable Object coerce(ConfigField field, Object config, ConfigPath path, @Nullable Object value)
+	{
+		Location location = locate(field, config, path);
+		Type type = location.type;
+		Class<?> raw = TypeToken.of(type).getRawType();
+		if (raw == Object.class)
+		{
+			// untyped, follow the value that is there now
+			Object current = location.get();
+			if (current == null || value == null)
+			{
+				return value;
+			}
+			type = raw = current.getClass();
+		}
+		if (value == null)
+		{
+			if (raw.isPrimitive())
+			{
+				throw new IllegalArgumentException("%s can not be set to null".formatted(path));
+			}
+			return null;
+		}
+		Object converted;
+		// sections and collections always go through JSON, the config must not share them with the caller
+		if (!ConfigField.isStructured(raw) && MethodType.methodType(raw).wrap().returnType().isInstance(value))
+		{
+			converted = value;
+		} else
+		{
+			try
+			{
+				JsonElement json = value instanceof String text ? JsonParser.parseString(text) : GSON.toJsonTree(value);
+				converted = GSON.fromJson(json, type);
+			} catch (JsonParseException | IllegalStateException | NumberFormatException | UnsupportedOperationException e)
+			{
+				converted = null;
+			}
+			if (converted == null)
+			{
+				throw new IllegalArgumentException("%s can not be set to '%s', expected %s".formatted(path, value, raw.getSimpleName()));
+			}
+		}
+		ConfigField.check(path.toString(), location.options, converted);
+		return converted;
+	}
+	
+	/**
+	 * Writes an already converted value at a path, a key that is not in a map yet is added and the index one past the end of a list appends
+	 *
+	 * @param field  the top level field the path starts at
+	 * @param config the config object
+	 * @param path   the path, deeper than the field
+	 * @param value  the converted value, see {@link #coerce(ConfigField, Object, ConfigPath, Object)}
+	 * @return the value that was replaced
+	 * @throws IllegalArgumentException if the path does not exist or its container can not be changed
+	 */
+	public static @Nullable Object set(ConfigField field, Object config, ConfigPath path, @Nullable Object value)
+	{
+		Location location = locate(field, config, path);
+		Object old = location.get();
+		location.set(value);
+		return old;
+	}
+	
+	/**
+	 * Compares two values by their content. Sections usually do not implement {@code equals}, so structured values are compared by their JSON.
+	 *
+	 * @param a the one value
+	 * @param b the other value
+	 * @return true if both values hold the same content
+	 */
+	public static boolean equal(@Nullable Object a, @Nullable Object b)
+	{
+		if (a == b)
+			return true;
+		if (a == null || b == null)
+			return false;
+		if (!ConfigField.isStructured(a.getClass()) && !ConfigField.isStructured(b.getClass()))
+			return Objects.deepEquals(a, b);
+		return GSON.toJsonTree(a).equals(GSON.toJsonTree(b));
+	}
+	
+	/**
+	 * Writes the content of a new structured value into the one that is there now, only the values that differ are changed, so references to the current value stay current.
+	 * Parts of the new value may be moved into the current one, so it must not be used afterwards.
+	 *
+	 * @param current the value that is there now
+	 * @param value   the new value
+	 * @return true if the current value now holds the new content, false if it can not be changed in place and has to be replaced
+	 */
+	public static boolean merge(@Nullable Object current, @Nullable Object value)
+	{
+		if (current == null || value == null || current.getClass() != value.getClass() || !ConfigField.isStructured(current.getClass()))
+		{
+			return false;
+		}
+		try
+		{
+			if (current instanceof Map<?, ?> map)
+				return mergeMap(map, (Map<?, ?>) value);
+			if (current instanceof List<?> list)
+				return mergeList(list, (List<?>) value);
+			if (current instanceof Collection<?> collection)
+				return mergeCollection(collection, (Collection<?>) value);
+			if (current.getClass().isArray())
+				return mergeArray(current, value);
+			for (Field member : MEMBERS.get(current.getClass()).values())
+			{
+				Object old = Location.read(member, current);
+				Object next = Location.read(member, value);
+				if (!equal(old, next) && !merge(old, next))
+				{
+					member.set(current, next);
+				}
+			}
+			return true;
+		} catch (UnsupportedOperationException | IllegalAccessException e)
+		{
+			// read only collections are replaced
+			return false;
+		}
+	}
+	
+	@SuppressWarnings("unchecked")
+	private static boolean mergeMap(Map<?, ?> current, Map<?, ?> value)
+	{
+		Map<Object, Object> target = (Map<Object, Object>) current;
+		target.keySet().retainAll(value.keySet());
+		for (Map.Entry<?, ?> entry : value.entrySet())
+		{
+			Object old = target.get(entry.getKey());
+			if (!target.containsKey(entry.getKey()) || (!equal(old, entry.getValue()) && !merge(old, entry.getValue())))
+			{
+				target.put(entry.getKey(), entry.getValue());
+			}
+		}
+		return true;
+	}
+	
+	@SuppressWarnings("unchecked")
+	private static boolean mergeList(List<?> current, List<?> value)
+	{
+		List<Object> target = (List<Object>) current;
+		for (int i = 0; i < value.size(); i++)
+		{
+			Object item = value.get(i);
+			if (i == target.size())
+			{
+				target.add(item);
+			} else if (!equal(target.get(i), item) && !merge(target.get(i), item))
+			{
+				target.set(i, item);
+			}
+		}
+		while (target.size() > value.size())
+		{
+			target.remove(target.size() - 1);
+		}
+		return true;
+	}
+	
+	@SuppressWarnings("unchecked")
+	private static boolean mergeCollection(Collection<?> current, Collection<?> value)
+	{
+		if (!equal(current, value))
+		{
+			Collection<Object> target = (Collection<Object>) current;
+			target.clear();
+			target.addAll(value);
+		}
+		return true;
+	}
+	
+	private static boolean mergeArray(Object current, Object value)
+	{
+		if (Array.getLength(current) != Array.getLength(value))
+		{
+			return false;
+		}
+		for (int i = 0; i < Array.getLength(value); i++)
+		{
+			Object old = Array.get(current, i);
+			Object item = Array.get(value, i);
+			if (!equal(old, item) && !merge(old, item))
+			{
+				Array.set(current, i, item);
+			}
+		}
+		return true;
+	}
+	
+	/**
+	 * Gets the {@link SimpleConfig} annotation closest to the end of a path
+	 *
+	 * @param field  the top level field the path starts at
+	 * @param config the config object
+	 * @param path   the path
+	 * @return the closest annotation, the field's own if no nested field on the path is annotated
+	 * @throws IllegalArgumentException if the path does not exist
+	 */
+	public static SimpleConfig getOptions(ConfigField field, Object config, ConfigPath path)
+	{
+		return path.isField() ? field.getOptions() : locate(field, config, path).options;
+	}
+	
+	/**
+	 * Collects every String, number, boolean and enum inside a field keyed by its path, structured values are walked in order.
+	 * A field that is not structured is collected under its own name.
+	 *
+	 * @param field  the field
+	 * @param config the config object
+	 * @param into   the map the values are added to
+	 */
+	public static void flatten(ConfigField field, Object config, Map<String, Object> into)
+	{
+		flatten(ConfigPath.of(field.getName()), field.get(config), into);
+	}
+	
+	private static void flatten(ConfigPath path, @Nullable Object value, Map<String, Object> into)
+	{
+		if (value == null)
+		{
+			return;
+		}
+		if (!ConfigField.isStructured(value.getClass()))
+		{
+			into.put(path.toString(), value);
+		} else if (value instanceof Map<?, ?> map)
+		{
+			for (Map.Entry<?, ?> entry : map.entrySet())
+			{
+				flatten(path.child(String.valueOf(entry.getKey())), entry.getValue(), into);
+			}
+		} else if (value instanceof List<?> list)
+		{
+			for (int i = 0; i < list.size(); i++)
+			{
+				flatten(path.child(Integer.toString(i)), list.get(i), into);
+			}
+		} else if (value.getClass().isArray())
+		{
+			for (int i = 0; i < Array.getLength(value); i++)
+			{
+				flatten(path.child(Integer.toString(i)), Array.get(value, i), into);
+			}
+		} else if (!(value instanceof Collection<?>))
+		{
+			for (Field member : MEMBERS.get(value.getClass()).values())
+			{
+				try
+				{
+					flatten(path.child(member.getName()), member.get(value), into);
+				} catch (IllegalAccessException e)
+				{
+					throw new IllegalStateException(e);
+				}
+			}
+		}
+	}
+	
+	/**
+	 * Walks a path down to the container of its last segment
+	 */
+	private static Location locate(ConfigField field, Object config, ConfigPath path)
+	{
+		Object container = field.get(config);
+		Type type = field.getField().getGenericType();
+		SimpleConfig options = field.getOptions();
+		for (int i = 1; ; i++)
+		{
+			if (container == null)
+			{
+				throw new IllegalArgumentException("%s does not exist".formatted(path));
+			}
+			Location location = step(container, type, path.get(i), options, path);
+			if (i == path.size() - 1)
+			{
+				return location;
+			}
+			container = location.get();
+			type = location.type;
+			options = location.options;
+		}
+	}
+	
+	private static Location step(Object container, Type type, String key, SimpleConfig options, ConfigPath path)
+	{
+		TypeToken<?> token = TypeToken.of(type);
+		if (container instanceof Map<?, ?>)
+		{
+			Type keyType = token.resolveType(Map.class.getTypeParameters()[0]).getType();
+			Object mapKey = key;
+			if (keyType instanceof Class<?> keyClass && keyClass != String.class && keyClass != Object.class)
+			{
+				try
+				{
+					mapKey = GSON.fromJson(new JsonPrimitive(key), keyType);
+				} catch (JsonParseException | NumberFormatException e)
+				{
+					throw new IllegalArgumentException("%s does not exist, '%s' is not a %s".formatted(path, key, keyClass.getSimpleName()));
+				}
+			}
+			return new Location(container, mapKey, -1, null, token.resolveType(Map.class.getTypeParameters()[1]).getType(), options, path);
+		}
+		if (container instanceof List<?>)
+		{
+			return new Location(container, null, index(key, path), null, token.resolveType(List.class.getTypeParameters()[0]).getType(), options, path);
+		}
+		if (container.getClass().isArray())
+		{
+			TypeToken<?> component = token.getComponentType();
+			return new Location(container, null, index(key, path), null, component == null ? container.getClass().getComponentType() : component.getType(), options, path);
+		}
+		Field member = container instanceof Collection<?> ? null : MEMBERS.get(container.getClass()).get(key);
+		if (member == null)
+		{
+			throw new IllegalArgumentException("%s does not exist".formatted(path));
+		}
+		SimpleConfig annotation = member.getAnnotation(SimpleConfig.class);
+		// resolved against the declared type so generic sections keep their type arguments
+		return new Location(container, null, -1, member, token.resolveType(member.getGenericType()).getType(), annotation == null ? options : annotation, path);
+	}
+	
+	private static int index(String key, ConfigPath path)
+	{
+		try
+		{
+			return Integer.parseInt(key);
+		} catch (NumberFormatException e)
+		{
+			throw new IllegalArgumentException("%s does not exist, '%s' is not an index".formatted(path, key));
+		}
+	}
+	
+	/**
+	 * One slot inside a structured value, a map entry, a list or array element or a field of a nested object
+	 */
+	private record Location(Object container, @Nullable Object key, int index, @Nullable Field member, Type type, SimpleConfig options, ConfigPath path)
+	{
+		@Nullable Object get()
+		{
+			if (container instanceof Map<?, ?> map)
+				return map.get(key);
+			if (member != null)
+				return read(member, container);
+			int length = container instanceof List<?> list ? list.size() : Array.getLength(container);
+			// one past the end of a list is where set appends, it reads like a missing map key
+			if (container instanceof List<?> && index == length)
+				return null;
+			if (index < 0 || index >= length)
+			{
+				throw new IllegalArgumentException("%s does not exist, the index is out of range".formatted(path));
+			}
+			return container instanceof List<?> list ? list.get(index) : Array.get(container, index);
+		}
+		
+		@SuppressWarnings("unchecked")
+		void set(@Nullable Object value)
+		{
+			try
+			{
+				if (container instanceof Map<?, ?>)
+				{
+					((Map<Object, Object>) container).put(key, value);
+				} else if (member != null)
+				{
+					member.set(container, value);
+				} else if (container instanceof List<?>)
+				{
+					List<Object> list = (List<Object>) container;
+					if (index == list.size())
+					{
+						list.add(value);
+					} else
+					{
+						list.set(index, value);
+					}
+				} else
+				{
+					get();
+					Array.set(container, index, value);
+				}
+			} catch (UnsupportedOperationException | IllegalAccessException e)
+			{
+				throw new IllegalArgumentException("%s can not be changed, its %s is read only".formatted(path, container.getClass().getSimpleName()));
+			}
+		}
+		
+		private static Object read(Field member, Object container)
+		{
+			try
+			{
+				return member.get(container);
+			} catch (IllegalAccessException e)
+			{
+				throw new IllegalStateException(e);
+			}
+		}
+	}
+}
@@ -0,0 +1,190 @@
+package chase.minecraft.architectury.simplemodconfig.schema;
+
+import java.util.Arrays;
+
+/**
+ * The address of a value inside a config, the first segment is the name of a top level field and every following segment steps one level deeper,
+ * into a map by key, into a list or array by index or into a nested object by field name.
+ * Paths are written either dotted, {@code Section.Limits.0}, or as a JSON pointer, {@code /Section/Limits/0}. JSON pointers can address map keys containing dots, '~1' stands for '/' and '~0' for '~'.
+ */
+public final class ConfigPath
+{
+	private final String[] segments;
+	
+	private ConfigPath(String[] segments)
+	{
+		this.segments = segments;
+	}
+	
+	/**
+	 * Parses a dotted path or a JSON pointer
+	 *
+	 * @param path the path
+	 * @return the parsed path
+	 * @throws IllegalArgumentException if the path is empty or has an empty segment
+	 */
+	public static ConfigPath parse(String path)
+	{
+		String[] segments;
+		if (path.startsWith("/"))
+		{
+			segments = path.substring(1).split("/", -1);
+			for (int i = 0; i < segments.length; i++)
+			{
+				segments[i] = segments[i].replace("~1", "/").replace("~0", "~");
+			}
+		} else
+		{
+			segments = path.split("\\.", -1);
+		}
+		for (String segment : segments)
+		{
+			if (segment.isEmpty())
+			{
+				throw new IllegalArgumentException("Invalid config path: '%s'".formatted(path));
+			}
+		}
+		return new ConfigPath(segments);
+	}
+	
+	/**
+	 * Creates the path of a top level field
+	 *
+	 * @param name the field name
+	 * @return the path
+	 */
+	public static ConfigPath of(String name)
+	{
+		return new ConfigPath(new String[]{name});
+	}
+	
+	/**
+	 * Checks if a name is a path into a field rather than a plain field name
+	 *
+	 * @param name the name or path
+	 * @return true if the name is dotted or a JSON pointer
+	 */
+	public static boolean isPath(String name)
+	{
+		return name.startsWith("/") || name.indexOf('.') >= 0;
+	}
+	
+	/**
+	 * Gets the path one level deeper
+	 *
+	 * @param segment the map key, index or field name
+	 * @return the child path
+	 */
+	public ConfigPath child(String segment)
+	{
+		String[] child = Arrays.copyOf(segments, segments.length + 1);
+		child[segments.length] = segment;
+		return new ConfigPath(child);
+	}
+	
+	/**
+	 * Appends a path relative to this one
+	 *
+	 * @param relative the relative path, dotted or a JSON pointer
+	 * @return the combined path
+	 */
+	public ConfigPath resolve(String relative)
+	{
+		String[] tail = parse(relative).segments;
+		String[] combined = Arrays.copyOf(segments, segments.length + tail.length);
+		System.arraycopy(tail, 0, combined, segments.length, tail.length);
+		return new ConfigPath(combined);
+	}
+	
+	/**
+	 * Gets the name of the top level field the path starts at
+	 *
+	 * @return the field name
+	 */
+	public String getField()
+	{
+		return segments[0];
+	}
+	
+	/**
+	 * Checks if the path addresses a whole top level field
+	 *
+	 * @return true if the path has a single segment
+	 */
+	public boolean isField()
+	{
+		return segments.length == 1;
+	}
+	
+	/**
+	 * Gets one segment of the path
+	 *
+	 * @param index the position of the segment, 0 is the field name
+	 * @return the segment
+	 */
+	public String get(int index)
+	{
+		return segments[index];
+	}
+	
+	/**
+	 * Gets the last segment of the path
+	 *
+	 * @return the map key, index or field name the path ends at
+	 */
+	public String getLast()
+	{
+		return segments[segments.length - 1];
+	}
+	
+	/**
+	 * Gets the number of segments
+	 *
+	 * @return the length of the path
+	 */
+	public int size()
+	{
+		return segments.length;
+	}
+	
+	/**
+	 * Writes the path dotted, or as a JSON pointer if a segment contains a dot or a slash
+	 *
+	 * @return the path
+	 */
+	@Override
+	public String toString()
+	{
+		boolean pointer = false;
+		for (String segment : segments)
+		{
+			if (segment.indexOf('.') >= 0 || segment.indexOf('/') >= 0)
+			{
+				pointer = true;
+				break;
+			}
+		}
+		if (!pointer)
+		{
+			return String.join(".", segments);
+		}
+		StringBuilder builder = new StringBuilder();
+		for (String segment : segments)
+		{
+			builder.append('/').append(segment.replace("~", "~0").replace("/", "~1"));
+		}
+		return builder.toString();
+	}
+	
+	@Override
+	public boolean equals(Object other)
+	{
+		return other instanceof ConfigPath path && Arrays.equals(segments, path.segments);
+	}
+	
+	@Override
+	public int hashCode()
+	{
+		return Arrays.hashCode(segments);
+	}
+}
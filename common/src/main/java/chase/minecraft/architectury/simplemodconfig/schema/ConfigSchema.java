@@ -0,0 +1,216 @@
+package chase.minecraft.architectury.simplemodconfig.schema;
+
+import chase.minecraft.architectury.simplemodconfig.SimpleModConfig;
+import chase.minecraft.architectury.simplemodconfig.annotation.SimpleConfig;
+import org.jetbrains.annotations.Nullable;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.*;
+
+/**
+ * The ConfigSchema class is the immutable, compiled description of a config class.
+ * It is built once per class and holds the ordered field table used by {@link chase.minecraft.architectury.simplemodconfig.handlers.ConfigHandler}, so reads and writes never go through reflection lookups.
+ */
+public final class ConfigSchema<T>
+{
+	private static final ClassValue<ConfigSchema<?>> SCHEMAS = new ClassValue<>()
+	{
+		@Override
+		protected ConfigSchema<?> computeValue(Class<?> type)
+		{
+			return new ConfigSchema<>(type);
+		}
+	};
+	
+	private final Class<T> type;
+	private final List<ConfigField> fields;
+	private final Map<String, ConfigField> byName;
+	private final long fingerprint;
+	private final @Nullable ConfigCodec<T> codec;
+	private final boolean structured;
+	
+	private ConfigSchema(Class<T> type)
+	{
+		this.type = type;
+		List<Field> annotated = new ArrayList<>();
+		for (Field field : type.getFields())
+		{
+			int modifiers = field.getModifiers();
+			if (field.isAnnotationPresent(SimpleConfig.class) && !Modifier.isStatic(modifiers) && !Modifier.isFinal(modifiers))
+			{
+				annotated.add(field);
+			}
+		}
+		// stable sort, fields sharing an index keep their declaration order
+		annotated.sort(Comparator.comparingInt(field -> field.getAnnotation(SimpleConfig.class).index()));
+		
+		ConfigField[] table = new ConfigField[annotated.size()];
+		Map<String, ConfigField> names = new HashMap<>(table.length * 2);
+		for (int i = 0; i < table.length; i++)
+		{
+			Field field = annotated.get(i);
+			try
+			{
+				table[i] = new ConfigField(field, field.getAnnotation(SimpleConfig.class), i);
+			} catch (IllegalAccessException e)
+			{
+				throw new IllegalArgumentException("Unable to access config field: %s.%s".formatted(type.getName(), field.getName()), e);
+			}
+			names.put(table[i].getName(), table[i]);
+		}
+		this.fields = List.of(table);
+		this.byName = Map.copyOf(names);
+		this.fingerprint = fingerprint(type, this.fields);
+		this.codec = findCodec(type, this.fields);
+		this.structured = this.fields.stream().anyMatch(ConfigField::isStructured);
+	}
+	
+	/**
+	 * Loads the codec generated for the config class, if the annotation processor ran on it
+	 */
+	@SuppressWarnings("unchecked")
+	private static <T> @Nullable ConfigCodec<T> findCodec(Class<T> type, List<ConfigField> fields)
+	{
+		String packageName = type.getPackageName();
+		String simpleName = type.getName().substring(packageName.isEmpty() ? 0 : packageName.length() + 1).replace('$', '_');
+		String name = packageName.isEmpty() ? simpleName : packageName + "." + simpleName;
+		Object codec;
+		try
+		{
+			codec = Class.forName(name + ConfigCodec.SUFFIX, true, type.getClassLoader()).getDeclaredConstructor().newInstance();
+		} catch (ClassNotFoundException e)
+		{
+			return null;
+		} catch (ReflectiveOperationException | LinkageError e)
+		{
+			SimpleModConfig.log.warn("Unable to create config codec for: {}, falling back to Gson", type.getName(), e);
+			return null;
+		}
+		if (!(codec instanceof ConfigCodec<?> generated) || generated.getType() != type)
+		{
+			// not generated for this exact class, it is loaded with Gson
+			return null;
+		}
+		if (!Arrays.equals(generated.getFieldNames(), fields.stream().map(ConfigField::getName).toArray()))
+		{
+			// generated from an older version of the class
+			SimpleModConfig.log.warn("Ignoring outdated config codec for: {}", type.getName());
+			return null;
+		}
+		return (ConfigCodec<T>) generated;
+	}
+	
+	/**
+	 * Hashes the class name and the name and generic type of every field in schema order, 64-bit FNV-1a
+	 */
+	private static long fingerprint(Class<?> type, List<ConfigField> fields)
+	{
+		StringBuilder description = new StringBuilder(type.getName());
+		for (ConfigField field : fields)
+		{
+			description.append(';').append(field.getName()).append(':').append(field.getField().getGenericType().getTypeName());
+		}
+		long hash = 0xcbf29ce484222325L;
+		for (int i = 0; i < description.length(); i++)
+		{
+			hash ^= description.charAt(i);
+			hash *= 0x100000001b3L;
+		}
+		return hash;
+	}
+	
+	/**
+	 * Gets the schema of a config class, the schema is compiled on first use and cached for the lifetime of the class.
+	 *
+	 * @param type the config class
+	 * @return the schema
+	 */
+	@SuppressWarnings("unchecked")
+	public static <T> ConfigSchema<T> of(Class<T> type)
+	{
+		return (ConfigSchema<T>) SCHEMAS.get(type);
+	}
+	
+	/**
+	 * Looks up a field by name
+	 *
+	 * @param name the field name
+	 * @return the field or null if the class has no config field with that name
+	 */
+	public @Nullable ConfigField field(String name)
+	{
+		return byName.get(name);
+	}
+	
+	/**
+	 * Checks if the schema has a config field with the given name
+	 *
+	 * @param name the field name
+	 * @return true if the field exists
+	 */
+	public boolean contains(String name)
+	{
+		return byName.containsKey(name);
+	}
+	
+	/**
+	 * Gets all config fields ordered by {@link SimpleConfig#index()}
+	 *
+	 * @return an immutable list of fields
+	 */
+	public List<ConfigField> fields()
+	{
+		return fields;
+	}
+	
+	/**
+	 * Gets the number of config fields
+	 *
+	 * @return the number of fields
+	 */
+	public int size()
+	{
+		return fields.size();
+	}
+	
+	/**
+	 * Checks if any field is a section or collection, see {@link ConfigField#isStructured()}
+	 *
+	 * @return true if the config has a structured field
+	 */
+	public boolean isStructured()
+	{
+		return structured;
+	}
+	
+	/**
+	 * Gets a hash of the field layout, it changes whenever a config field is added, removed, renamed, reordered or changes type
+	 *
+	 * @return the schema fingerprint
+	 */
+	public long getFingerprint()
+	{
+		return fingerprint;
+	}
+	
+	/**
+	 * Gets the codec generated at compile time for the config class
+	 *
+	 * @return the codec or null if none was generated, in that case the config is read and written through Gson
+	 */
+	public @Nullable ConfigCodec<T> getCodec()
+	{
+		return codec;
+	}
+	
+	/**
+	 * Gets the config class this schema describes
+	 *
+	 * @return the config class
+	 */
+	public Class<T> getType()
+	{
+		return type;
+	}
+}
@@ -0,0 +1,158 @@
+package chase.minecraft.architectury.simplemodconfig.search;
+
+import java.util.*;
+import java.util.function.Function;
+
+/**
+ * A substring index over the names of a fixed list of items, used by the search boxes of the config screens.
+ * Names are normalized once when the index is built and every trigram of a name points to the items containing it, so a query only checks the items sharing its rarest trigram.
+ * The last result is kept, a query that contains the previous query (usually the user typed another character) only filters the previous result.
+ * Results keep the order of the indexed list. The index is not thread safe, it is meant to be used from the render thread.
+ *
+ * @param <T> the indexed items
+ */
+public final class SearchIndex<T>
+{
+	private static final int[] EMPTY = new int[0];
+	private final List<T> items;
+	private final String[] names;
+	private final Map<String, int[]> trigrams;
+	private String lastQuery = "";
+	private int[] lastResult;
+	
+	/**
+	 * Builds the index
+	 *
+	 * @param items the items in the order results are returned in
+	 * @param name  gets the searchable name of an item
+	 */
+	public SearchIndex(List<T> items, Function<T, String> name)
+	{
+		this.items = List.copyOf(items);
+		this.names = new String[this.items.size()];
+		Map<String, List<Integer>> postings = new HashMap<>();
+		for (int i = 0; i < names.length; i++)
+		{
+			names[i] = normalize(name.apply(this.items.get(i)));
+			for (String trigram : trigrams(names[i]))
+			{
+				postings.computeIfAbsent(trigram, key -> new ArrayList<>()).add(i);
+			}
+		}
+		this.trigrams = new HashMap<>(postings.size() * 2);
+		postings.forEach((trigram, list) -> trigrams.put(trigram, list.stream().mapToInt(Integer::intValue).toArray()));
+		this.lastResult = all();
+	}
+	
+	/**
+	 * Normalizes a name or query, searches ignore case and surrounding whitespace
+	 *
+	 * @param text the text
+	 * @return the normalized text
+	 */
+	public static String normalize(String text)
+	{
+		return text.trim().toLowerCase(Locale.ROOT);
+	}
+	
+	/**
+	 * Finds the items whose name contains the query
+	 *
+	 * @param query the query, an empty query matches every item
+	 * @return the matching items in index order
+	 */
+	public List<T> search(String query)
+	{
+		String normalized = normalize(query);
+		if (!normalized.equals(lastQuery))
+		{
+			int[] candidates;
+			if (!lastQuery.isEmpty() && normalized.contains(lastQuery))
+			{
+				// narrowing, every match of the new query also matched the last one
+				candidates = lastResult;
+			} else
+			{
+				candidates = candidates(normalized);
+			}
+			lastResult = filter(candidates, normalized);
+			lastQuery = normalized;
+		}
+		List<T> result = new ArrayList<>(lastResult.length);
+		for (int index : lastResult)
+		{
+			result.add(items.get(index));
+		}
+		return result;
+	}
+	
+	/**
+	 * Gets the number of indexed items
+	 *
+	 * @return the size
+	 */
+	public int size()
+	{
+		return items.size();
+	}
+	
+	private int[] candidates(String query)
+	{
+		if (query.length() < 3)
+		{
+			return all();
+		}
+		int[] smallest = null;
+		for (String trigram : trigrams(query))
+		{
+			int[] posting = trigrams.get(trigram);
+			if (posting == null)
+			{
+				return EMPTY;
+			}
+			if (smallest == null || posting.length < smallest.length)
+			{
+				smallest = posting;
+			}
+		}
+		return smallest == null ? EMPTY : smallest;
+	}
+	
+	private int[] filter(int[] candidates, String query)
+	{
+		if (query.isEmpty())
+		{
+			return candidates;
+		}
+		int[] matches = new int[candidates.length];
+		int count = 0;
+		for (int index : candidates)
+		{
+			if (names[index].contains(query))
+			{
+				matches[count++] = index;
+			}
+		}
+		return Arrays.copyOf(matches, count);
+	}
+	
+	private int[] all()
+	{
+		int[] all = new int[names.length];
+		for (int i = 0; i < all.length; i++)
+		{
+			all[i] = i;
+		}
+		return all;
+	}
+	
+	private static Set<String> trigrams(String text)
+	{
+		Set<String> trigrams = new HashSet<>();
+		for (int i = 0; i + 3 <= text.length(); i++)
+		{
+			trigrams.add(text.substring(i, i + 3));
+		}
+		return trigrams;
+	}
+}
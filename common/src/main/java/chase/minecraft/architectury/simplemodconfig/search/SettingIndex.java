@@ -0,0 +1,394 @@
+package chase.minecraft.architectury.simplemodconfig.search;
+
+import chase.minecraft.architectury.simplemodconfig.SimpleModConfig;
+import chase.minecraft.architectury.simplemodconfig.annotation.SimpleConfig;
+import chase.minecraft.architectury.simplemodconfig.handlers.ConfigHandler;
+import chase.minecraft.architectury.simplemodconfig.schema.ConfigField;
+
+import java.util.*;
+import java.util.concurrent.*;
+
+/**
+ * An inverted token index over the settings of every registered config, used to search settings across mods.
+ * A setting is indexed by the words of its field name, display name, description and options, read from the config schema so no config file is loaded.
+ * Query words of two or more characters match indexed words they are a prefix of, single characters only match whole words, and a setting has to match every query word.
+ * Every posting list is kept sorted in result order, so a search merges the posting lists of one query word and stops after the first matches instead of collecting and sorting every match.
+ * Short prefixes that match a lot of indexed words walk the settings in result order instead, they match densely enough that the first results come up quickly.
+ * Updates run in order on a single background thread, searches are safe from any thread and see every update that finished before them.
+ */
+public final class SettingIndex
+{
+	private static final ExecutorService INDEXER = Executors.newSingleThreadExecutor(runnable ->
+	{
+		Thread thread = new Thread(runnable, "SimpleModConfig-Indexer");
+		thread.setDaemon(true);
+		return thread;
+	});
+	/**
+	 * The number of posting lists above which a query walks the settings instead of merging the lists
+	 */
+	private static final int MAX_MERGED = 256;
+	private final ConcurrentNavigableMap<String, Posting> postings = new ConcurrentSkipListMap<>();
+	private final ConcurrentNavigableMap<String, List<Setting>> byMod;
+	private final Map<Setting, String[]> tokens = new ConcurrentHashMap<>();
+	private final Comparator<Setting> order;
+	private volatile CompletableFuture<Void> pending = CompletableFuture.completedFuture(null);
+	
+	/**
+	 * Creates an empty index
+	 *
+	 * @param modOrder the order results from different mods are returned in
+	 */
+	public SettingIndex(Comparator<String> modOrder)
+	{
+		this.byMod = new ConcurrentSkipListMap<>(modOrder);
+		this.order = Comparator.comparing(Setting::mod, modOrder).thenComparingInt(setting -> setting.field().getOrdinal());
+	}
+	
+	/**
+	 * Indexes the settings of a config in the background, replacing what was indexed for the mod before
+	 *
+	 * @param mod     the display name of the mod
+	 * @param handler the config handler
+	 */
+	public void add(String mod, ConfigHandler<?> handler)
+	{
+		submit(() ->
+		{
+			unindex(mod);
+			List<Setting> settings = new ArrayList<>(handler.getSchema().size());
+			for (ConfigField field : handler.getSchema().fields())
+			{
+				Setting setting = new Setting(mod, handler, field);
+				settings.add(setting);
+				String[] settingTokens = tokens(field);
+				tokens.put(setting, settingTokens);
+				for (String token : settingTokens)
+				{
+					postings.computeIfAbsent(token, key -> new Posting(order)).add(setting);
+				}
+			}
+			byMod.put(mod, settings);
+		});
+	}
+	
+	/**
+	 * Removes the settings of a mod from the index in the background
+	 *
+	 * @param mod the display name of the mod
+	 */
+	public void remove(String mod)
+	{
+		submit(() -> unindex(mod));
+	}
+	
+	/**
+	 * Gets a future that completes once every update submitted so far has been applied
+	 *
+	 * @return the future
+	 */
+	public CompletableFuture<Void> awaitIndexed()
+	{
+		return pending;
+	}
+	
+	/**
+	 * Finds the settings matching every word of the query
+	 *
+	 * @param query the query
+	 * @param limit the maximum number of results
+	 * @return the matching settings sorted by mod and then by their order in the config
+	 */
+	public List<Setting> search(String query, int limit)
+	{
+		List<String> words = words(query);
+		if (words.isEmpty())
+		{
+			return List.of();
+		}
+		// only the word matching the fewest settings is looked up, the other words are checked against the tokens of its matches
+		// longer words tend to be rarer, checking them first lets the size estimates of the others stop early
+		words.sort(Comparator.comparingInt(String::length).reversed());
+		// a word matching too many indexed words is never merged, if every word is like that the settings are walked instead
+		Collection<Posting> rarest = null;
+		String rarestWord = null;
+		long rarestSize = Long.MAX_VALUE;
+		for (String word : words)
+		{
+			Collection<Posting> matching = matching(word).values();
+			long size = 0;
+			int count = 0;
+			for (Posting posting : matching)
+			{
+				size += posting.size;
+				if (size >= rarestSize || ++count > MAX_MERGED)
+				{
+					size = Long.MAX_VALUE;
+					break;
+				}
+			}
+			if (size < rarestSize)
+			{
+				rarest = matching;
+				rarestWord = word;
+				rarestSize = size;
+			}
+		}
+		if (rarest == null)
+		{
+			return scan(words, limit);
+		}
+		words.remove(rarestWord);
+		
+		// k-way merge of the sorted posting lists, a setting in several of them comes out several times in a row
+		PriorityQueue<Cursor> cursors = new PriorityQueue<>(Math.max(1, rarest.size()), (a, b) -> order.compare(a.head, b.head));
+		for (Posting posting : rarest)
+		{
+			Iterator<Setting> iterator = posting.settings.iterator();
+			if (iterator.hasNext())
+			{
+				cursors.add(new Cursor(iterator.next(), iterator));
+			}
+		}
+		List<Setting> result = new ArrayList<>(Math.min(limit, 64));
+		Setting last = null;
+		while (!cursors.isEmpty() && result.size() < limit)
+		{
+			Cursor cursor = cursors.poll();
+			Setting setting = cursor.head;
+			if (setting != last && matchesAll(setting, words))
+			{
+				result.add(setting);
+			}
+			last = setting;
+			if (cursor.iterator.hasNext())
+			{
+				cursor.head = cursor.iterator.next();
+				cursors.add(cursor);
+			}
+		}
+		return result;
+	}
+	
+	/**
+	 * Walks every setting in result order, used when the rarest query word matches too many indexed words to merge their posting lists
+	 */
+	private List<Setting> scan(List<String> words, int limit)
+	{
+		List<Setting> result = new ArrayList<>(Math.min(limit, 64));
+		for (List<Setting> settings : byMod.values())
+		{
+			for (Setting setting : settings)
+			{
+				if (matchesAll(setting, words))
+				{
+					result.add(setting);
+					if (result.size() >= limit)
+					{
+						return result;
+					}
+				}
+			}
+		}
+		return result;
+	}
+	
+	/**
+	 * Gets the number of indexed settings
+	 *
+	 * @return the size
+	 */
+	public int size()
+	{
+		int size = 0;
+		for (List<Setting> settings : byMod.values())
+		{
+			size += settings.size();
+		}
+		return size;
+	}
+	
+	private Map<String, Posting> matching(String word)
+	{
+		if (word.length() < 2)
+		{
+			Posting exact = postings.get(word);
+			return exact == null ? Map.of() : Map.of(word, exact);
+		}
+		return postings.subMap(word, true, word + Character.MAX_VALUE, true);
+	}
+	
+	private boolean matchesAll(Setting setting, List<String> words)
+	{
+		String[] settingTokens = tokens.get(setting);
+		if (settingTokens == null)
+		{
+			// removed while searching
+			return false;
+		}
+		for (String word : words)
+		{
+			boolean found = false;
+			for (String token : settingTokens)
+			{
+				if (word.length() < 2 ? token.equals(word) : token.startsWith(word))
+				{
+					found = true;
+					break;
+				}
+			}
+			if (!found)
+			{
+				return false;
+			}
+		}
+		return true;
+	}
+	
+	private synchronized void submit(Runnable update)
+	{
+		pending = pending.thenRunAsync(() ->
+		{
+			try
+			{
+				update.run();
+			} catch (RuntimeException e)
+			{
+				SimpleModConfig.log.error("Unable to update the setting index", e);
+			}
+		}, INDEXER);
+	}
+	
+	/**
+	 * Removes the settings of a mod, only called on the indexer thread
+	 */
+	private void unindex(String mod)
+	{
+		List<Setting> settings = byMod.remove(mod);
+		if (settings == null)
+		{
+			return;
+		}
+		for (Setting setting : settings)
+		{
+			String[] settingTokens = tokens.remove(setting);
+			if (settingTokens == null)
+			{
+				continue;
+			}
+			for (String token : settingTokens)
+			{
+				Posting posting = postings.get(token);
+				if (posting != null)
+				{
+					posting.remove(setting);
+					if (posting.size == 0)
+					{
+						postings.remove(token, posting);
+					}
+				}
+			}
+		}
+	}
+	
+	private static String[] tokens(ConfigField field)
+	{
+		SimpleConfig options = field.getOptions();
+		Set<String> tokens = new HashSet<>();
+		String name = field.getName();
+		tokens.addAll(words(name));
+		tokens.addAll(words(splitCamelCase(name)));
+		tokens.addAll(words(options.displayName()));
+		tokens.addAll(words(options.description()));
+		for (String option : options.options())
+		{
+			tokens.addAll(words(option));
+		}
+		return tokens.toArray(String[]::new);
+	}
+	
+	/**
+	 * Splits text into lower case words at every character that is not a letter or digit
+	 */
+	private static List<String> words(String text)
+	{
+		List<String> words = new ArrayList<>();
+		for (String word : text.toLowerCase(Locale.ROOT).split("[^\\p{L}\\p{N}]+"))
+		{
+			if (!word.isEmpty())
+			{
+				words.add(word);
+			}
+		}
+		return words;
+	}
+	
+	private static String splitCamelCase(String name)
+	{
+		StringBuilder builder = new StringBuilder(name.length() + 8);
+		for (int i = 0; i < name.length(); i++)
+		{
+			char c = name.charAt(i);
+			if (i > 0 && Character.isUpperCase(c) && !Character.isUpperCase(name.charAt(i - 1)))
+			{
+				builder.append(' ');
+			}
+			builder.append(c);
+		}
+		return builder.toString();
+	}
+	
+	/**
+	 * The settings of one indexed word sorted in result order, the size is tracked because the set would have to be walked to count it.
+	 * Only changed on the indexer thread.
+	 */
+	private static final class Posting
+	{
+		private final NavigableSet<Setting> settings;
+		private volatile int size;
+		
+		private Posting(Comparator<Setting> order)
+		{
+			this.settings = new ConcurrentSkipListSet<>(order);
+		}
+		
+		private void add(Setting setting)
+		{
+			if (settings.add(setting))
+			{
+				size++;
+			}
+		}
+		
+		private void remove(Setting setting)
+		{
+			if (settings.remove(setting))
+			{
+				size--;
+			}
+		}
+	}
+	
+	private static final class Cursor
+	{
+		private Setting head;
+		private final Iterator<Setting> iterator;
+		
+		private Cursor(Setting head, Iterator<Setting> iterator)
+		{
+			this.head = head;
+			this.iterator = iterator;
+		}
+	}
+	
+	/**
+	 * One setting of a registered config
+	 *
+	 * @param mod     the display name of the mod
+	 * @param handler the config handler of the mod
+	 * @param field   the config field
+	 */
+	public record Setting(String mod, ConfigHandler<?> handler, ConfigField field)
+	{
+	}
+}
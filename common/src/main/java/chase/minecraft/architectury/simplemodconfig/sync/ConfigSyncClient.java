@@ -0,0 +1,230 @@
+package chase.minecraft.architectury.simplemodconfig.sync;
+
+import chase.minecraft.architectury.simplemodconfig.SimpleModConfig;
+import chase.minecraft.architectury.simplemodconfig.handlers.ConfigChangeListener;
+import chase.minecraft.architectury.simplemodconfig.handlers.ConfigHandler;
+import chase.minecraft.architectury.simplemodconfig.schema.ConfigField;
+import chase.minecraft.architectury.simplemodconfig.schema.ConfigNodes;
+import com.google.gson.Gson;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * The client side of config sync, it keeps a view of the server's values next to the client's own config, which is never changed or saved by sync.
+ * Until the first snapshot arrives, and again after leaving the server, the view holds the client's own values, and fields the server does not send always do.
+ * Changes to the client's own config show up in those fields as they are made.
+ * Messages are applied on the thread that receives them, {@link NetworkSyncChannel} receives them on the client thread.
+ *
+ * @param <T> the config class
+ */
+public final class ConfigSyncClient<T>
+{
+	private static final Gson GSON = new Gson();
+	private final ConfigHandler<T> handler;
+	private final List<ConfigChangeListener> listeners = new CopyOnWriteArrayList<>();
+	// the fields whose value came from the server, the others follow the client's config
+	private final boolean[] fromServer;
+	private T config;
+	private long version;
+	private boolean synced;
+	
+	/**
+	 * Creates the server view of a config
+	 *
+	 * @param handler the client's config handler
+	 */
+	public ConfigSyncClient(ConfigHandler<T> handler)
+	{
+		this.handler = handler;
+		this.fromServer = new boolean[handler.getSchema().size()];
+		// the handler's lock is always taken before this view's, its change listeners run while it is held
+		synchronized (handler)
+		{
+			this.config = local();
+			handler.onAnyChange((name, oldValue, newValue) -> localChanged(name, newValue));
+		}
+	}
+	
+	private T local()
+	{
+		synchronized (handler)
+		{
+			return GSON.fromJson(GSON.toJsonTree(handler.getConfig()), handler.getSchema().getType());
+		}
+	}
+	
+	/**
+	 * Applies a message from the server. Deltas that arrive before the snapshot or are not newer than the values already applied are dropped.
+	 *
+	 * @param payload the message
+	 */
+	public synchronized void receive(byte[] payload)
+	{
+		SyncCodec.Message message;
+		try
+		{
+			message = SyncCodec.decode(handler.getSchema(), payload);
+		} catch (IllegalArgumentException e)
+		{
+			SimpleModConfig.log.error("Unable to sync config: {}, {}", handler.getName(), e.getMessage());
+			return;
+		}
+		if (!message.snapshot())
+		{
+			if (!synced || message.version() <= version)
+			{
+				return;
+			}
+			if (message.version() != version + 1)
+			{
+				// values are absolute, so the newest ones are still right, the ones in between were lost
+				SimpleModConfig.log.warn("Config: {} skipped from version {} to {}", handler.getName(), version, message.version());
+			}
+		}
+		version = message.version();
+		synced = true;
+		for (int i = 0; i < message.fields().size(); i++)
+		{
+			ConfigField field = message.fields().get(i);
+			Object value = message.values().get(i);
+			fromServer[field.getOrdinal()] = true;
+			Object old = field.get(config);
+			if (!ConfigNodes.equal(old, value))
+			{
+				field.set(config, value);
+				fire(field.getName(), old, value);
+			}
+		}
+	}
+	
+	/**
+	 * Drops the server's values after leaving the server, the view holds the client's own values again
+	 */
+	public void disconnect()
+	{
+		synchronized (handler)
+		{
+			synchronized (this)
+			{
+				synced = false;
+				version = 0;
+				Arrays.fill(fromServer, false);
+				config = local();
+			}
+		}
+	}
+	
+	/**
+	 * Copies a change of the client's own config into the view, unless the server sent the field
+	 *
+	 * @param name     the field that changed
+	 * @param newValue the client's new value
+	 */
+	private synchronized void localChanged(String name, @Nullable Object newValue)
+	{
+		ConfigField field = handler.getSchema().field(name);
+		if (field == null || fromServer[field.getOrdinal()])
+		{
+			return;
+		}
+		// sections and collections are copied, the view must not share them with the live config
+		Object value = newValue == null || !field.isStructured() ? newValue : GSON.fromJson(GSON.toJsonTree(newValue, field.getField().getGenericType()), field.getField().getGenericType());
+		Object old = field.get(config);
+		if (!ConfigNodes.equal(old, value))
+		{
+			field.set(config, value);
+			fire(name, old, value);
+		}
+	}
+	
+	private void fire(String name, @Nullable Object oldValue, @Nullable Object newValue)
+	{
+		for (ConfigChangeListener listener : listeners)
+		{
+			try
+			{
+				listener.onChange(name, oldValue, newValue);
+			} catch (RuntimeException e)
+			{
+				SimpleModConfig.log.error("Sync listener of field: {} failed", name, e);
+			}
+		}
+	}
+	
+	/**
+	 * Gets the server's view of the config, fields that are not synced hold the client's own values
+	 *
+	 * @return the view, do not change it
+	 */
+	public synchronized T getConfig()
+	{
+		return config;
+	}
+	
+	/**
+	 * Gets the server's value of a field
+	 *
+	 * @param name the field name
+	 * @return the value, or null if the field does not exist
+	 */
+	public synchronized @Nullable Object get(String name)
+	{
+		ConfigField field = handler.getSchema().field(name);
+		return field == null ? null : field.get(config);
+	}
+	
+	/**
+	 * Listens for values of the view that changed, the listener is called on the thread that received the message,
+	 * or for a change of the client's own config on the thread that made it
+	 *
+	 * @param listener the listener
+	 */
+	public void onChange(ConfigChangeListener listener)
+	{
+		listeners.add(listener);
+	}
+	
+	/**
+	 * Removes a sync listener
+	 *
+	 * @param listener the listener
+	 * @return true if the listener was registered
+	 */
+	public boolean removeListener(ConfigChangeListener listener)
+	{
+		return listeners.remove(listener);
+	}
+	
+	/**
+	 * Checks if a snapshot was received since joining the server
+	 *
+	 * @return true if the view holds the server's values
+	 */
+	public synchronized boolean isSynced()
+	{
+		return synced;
+	}
+	
+	/**
+	 * Gets the version of the last applied message
+	 *
+	 * @return the version, 0 before the first delta
+	 */
+	public synchronized long getVersion()
+	{
+		return version;
+	}
+	
+	/**
+	 * Gets the config handler this view belongs to
+	 *
+	 * @return the client's config handler
+	 */
+	public ConfigHandler<T> getHandler()
+	{
+		return handler;
+	}
+}
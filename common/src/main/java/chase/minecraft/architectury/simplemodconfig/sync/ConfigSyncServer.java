@@ -0,0 +1,229 @@
+package chase.minecraft.architectury.simplemodconfig.sync;
+
+import chase.minecraft.architectury.simplemodconfig.handlers.ConfigHandler;
+import chase.minecraft.architectury.simplemodconfig.schema.ConfigField;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.*;
+
+/**
+ * The server side of config sync. A player that joins gets a snapshot of every synced field, after that changes are collected and sent once per {@link #tick()} as a delta
+ * holding only the fields whose value differs from what was last sent, tagged with a version that grows by one per delta.
+ * Changes made by {@link ConfigHandler#set(String, Object)}, transactions, typed keys, reloads and resets are all picked up through the handler's change listeners.
+ */
+public final class ConfigSyncServer
+{
+	private final ConfigHandler<?> handler;
+	private final SyncChannel channel;
+	private final List<ConfigField> fields;
+	private final boolean[] synced;
+	// guarded by itself and never held while taking another lock, the change listener runs under the handler's lock
+	private final BitSet dirty = new BitSet();
+	private final byte[][] sent;
+	private final Set<UUID> players = new LinkedHashSet<>();
+	private long version;
+	private long bytesSent;
+	
+	/**
+	 * Syncs the fields marked with {@code @SimpleConfig(sync = true)}
+	 *
+	 * @param handler the config handler
+	 * @param channel the channel the messages are sent through
+	 */
+	public ConfigSyncServer(ConfigHandler<?> handler, SyncChannel channel)
+	{
+		this(handler, channel, handler.getSchema().fields().stream().filter(field -> field.getOptions().sync()).toList());
+	}
+	
+	/**
+	 * Syncs the given fields
+	 *
+	 * @param handler the config handler
+	 * @param channel the channel the messages are sent through
+	 * @param names   the names of the fields to sync
+	 * @throws IllegalArgumentException if a field does not exist
+	 */
+	public ConfigSyncServer(ConfigHandler<?> handler, SyncChannel channel, String... names)
+	{
+		this(handler, channel, fields(handler, names));
+	}
+	
+	private ConfigSyncServer(ConfigHandler<?> handler, SyncChannel channel, List<ConfigField> fields)
+	{
+		this.handler = handler;
+		this.channel = channel;
+		this.fields = fields;
+		this.synced = new boolean[handler.getSchema().size()];
+		this.sent = new byte[synced.length][];
+		for (ConfigField field : fields)
+		{
+			synced[field.getOrdinal()] = true;
+		}
+		handler.onAnyChange((name, oldValue, newValue) -> changed(name));
+	}
+	
+	private static List<ConfigField> fields(ConfigHandler<?> handler, String... names)
+	{
+		List<ConfigField> fields = new ArrayList<>(names.length);
+		for (String name : names)
+		{
+			ConfigField field = handler.getSchema().field(name);
+			if (field == null)
+			{
+				throw new IllegalArgumentException("Unknown config field: %s".formatted(name));
+			}
+			fields.add(field);
+		}
+		fields.sort(Comparator.comparingInt(ConfigField::getOrdinal));
+		return fields;
+	}
+	
+	private void changed(String name)
+	{
+		ConfigField field = handler.getSchema().field(name);
+		if (field != null && synced[field.getOrdinal()])
+		{
+			synchronized (dirty)
+			{
+				dirty.set(field.getOrdinal());
+			}
+		}
+	}
+	
+	/**
+	 * Sends a snapshot of every synced field to a player that joined, pending changes are sent to the other players first so everyone is at the same version afterwards
+	 *
+	 * @param player the player
+	 */
+	public synchronized void join(UUID player)
+	{
+		tick();
+		List<byte[]> entries = new ArrayList<>(fields.size());
+		synchronized (handler)
+		{
+			Object config = handler.getConfig();
+			for (ConfigField field : fields)
+			{
+				byte[] entry = SyncCodec.encodeEntry(field, field.get(config));
+				sent[field.getOrdinal()] = entry;
+				entries.add(entry);
+			}
+		}
+		players.add(player);
+		send(player, SyncCodec.encode(SyncCodec.SNAPSHOT, version, handler.getSchema().getFingerprint(), entries));
+	}
+	
+	/**
+	 * Stops sending to a player that left
+	 *
+	 * @param player the player
+	 */
+	public synchronized void leave(UUID player)
+	{
+		players.remove(player);
+	}
+	
+	/**
+	 * Sends the fields that changed since the last tick to every player, called once per server tick.
+	 * Nothing is sent if no synced field changed or every changed field is back at the value that was last sent.
+	 */
+	public synchronized void tick()
+	{
+		BitSet changed;
+		synchronized (dirty)
+		{
+			if (dirty.isEmpty())
+			{
+				return;
+			}
+			changed = (BitSet) dirty.clone();
+			dirty.clear();
+		}
+		if (players.isEmpty())
+		{
+			// the next player to join gets a snapshot, which is the new baseline
+			return;
+		}
+		List<byte[]> entries = new ArrayList<>(changed.cardinality());
+		synchronized (handler)
+		{
+			Object config = handler.getConfig();
+			for (int ordinal = changed.nextSetBit(0); ordinal >= 0; ordinal = changed.nextSetBit(ordinal + 1))
+			{
+				ConfigField field = handler.getSchema().fields().get(ordinal);
+				byte[] entry = SyncCodec.encodeEntry(field, field.get(config));
+				if (!Arrays.equals(entry, sent[ordinal]))
+				{
+					sent[ordinal] = entry;
+					entries.add(entry);
+				}
+			}
+		}
+		if (entries.isEmpty())
+		{
+			return;
+		}
+		byte[] delta = SyncCodec.encode(SyncCodec.DELTA, ++version, 0, entries);
+		for (UUID player : players)
+		{
+			send(player, delta);
+		}
+	}
+	
+	private void send(UUID player, byte[] payload)
+	{
+		bytesSent += payload.length;
+		channel.send(player, handler.getName(), payload);
+	}
+	
+	/**
+	 * Gets the version of the last delta, 0 until the first delta was sent
+	 *
+	 * @return the version
+	 */
+	public synchronized long getVersion()
+	{
+		return version;
+	}
+	
+	/**
+	 * Gets the bytes of every message sent so far, summed over all players
+	 *
+	 * @return the bytes sent
+	 */
+	public synchronized long getBytesSent()
+	{
+		return bytesSent;
+	}
+	
+	/**
+	 * Gets the players that are sent to
+	 *
+	 * @return a copy of the players
+	 */
+	public synchronized Set<UUID> getPlayers()
+	{
+		return new LinkedHashSet<>(players);
+	}
+	
+	/**
+	 * Gets the synced fields
+	 *
+	 * @return the fields in schema order
+	 */
+	public List<ConfigField> getFields()
+	{
+		return Collections.unmodifiableList(fields);
+	}
+	
+	/**
+	 * Checks if a field is synced
+	 *
+	 * @param field the field
+	 * @return true if changes of the field are sent
+	 */
+	public boolean isSynced(@Nullable ConfigField field)
+	{
+		return field != null && synced[field.getOrdinal()];
+	}
+}
@@ -0,0 +1,75 @@
+package chase.minecraft.architectury.simplemodconfig.sync;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A channel that hands messages straight to {@link ConfigSyncClient}s in the same process, for exercising sync without a server and for measuring what it sends.
+ * Messages are delivered on the sending thread, messages to players or configs without a connected client are counted and dropped.
+ */
+public final class InMemorySyncChannel implements SyncChannel
+{
+	private final Map<UUID, Map<String, ConfigSyncClient<?>>> clients = new ConcurrentHashMap<>();
+	private final LongAdder messages = new LongAdder();
+	private final LongAdder bytes = new LongAdder();
+	
+	/**
+	 * Connects the view of a player to the channel
+	 *
+	 * @param player the player
+	 * @param client the player's view of one config
+	 */
+	public void connect(UUID player, ConfigSyncClient<?> client)
+	{
+		clients.computeIfAbsent(player, key -> new ConcurrentHashMap<>()).put(client.getHandler().getName(), client);
+	}
+	
+	/**
+	 * Disconnects every view of a player, the views go back to the client's own values
+	 *
+	 * @param player the player
+	 */
+	public void disconnect(UUID player)
+	{
+		Map<String, ConfigSyncClient<?>> removed = clients.remove(player);
+		if (removed != null)
+		{
+			removed.values().forEach(ConfigSyncClient::disconnect);
+		}
+	}
+	
+	@Override
+	public void send(UUID player, String config, byte[] payload)
+	{
+		messages.increment();
+		bytes.add(payload.length);
+		Map<String, ConfigSyncClient<?>> views = clients.get(player);
+		ConfigSyncClient<?> client = views == null ? null : views.get(config);
+		if (client != null)
+		{
+			client.receive(payload);
+		}
+	}
+	
+	/**
+	 * Gets the number of messages sent through the channel
+	 *
+	 * @return the message count
+	 */
+	public long getMessagesSent()
+	{
+		return messages.sum();
+	}
+	
+	/**
+	 * Gets the bytes sent through the channel
+	 *
+	 * @return the payload bytes
+	 */
+	public long getBytesSent()
+	{
+		return bytes.sum();
+	}
+}
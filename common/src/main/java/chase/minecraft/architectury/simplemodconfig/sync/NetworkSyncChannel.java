@@ -0,0 +1,100 @@
+package chase.minecraft.architectury.simplemodconfig.sync;
+
+import chase.minecraft.architectury.simplemodconfig.SimpleModConfig;
+import dev.architectury.event.events.client.ClientPlayerEvent;
+import dev.architectury.event.events.common.LifecycleEvent;
+import dev.architectury.networking.NetworkManager;
+import dev.architectury.platform.Platform;
+import dev.architectury.utils.Env;
+import io.netty.buffer.Unpooled;
+import net.fabricmc.api.EnvType;
+import net.fabricmc.api.Environment;
+import net.minecraft.network.FriendlyByteBuf;
+import net.minecraft.resources.ResourceLocation;
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.server.level.ServerPlayer;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Sends sync messages as packets. Every synced config shares one packet id, a packet is the config name followed by the message.
+ * On the client the packets are handed to the {@link ConfigSyncClient} registered for the config, on the client thread.
+ */
+public final class NetworkSyncChannel implements SyncChannel
+{
+	private static final ResourceLocation ID = SimpleModConfig.id("sync");
+	private static @Nullable NetworkSyncChannel instance;
+	private final Map<String, ConfigSyncClient<?>> clients = new ConcurrentHashMap<>();
+	private volatile @Nullable MinecraftServer server;
+	
+	private NetworkSyncChannel()
+	{
+		LifecycleEvent.SERVER_STARTED.register(server -> this.server = server);
+		LifecycleEvent.SERVER_STOPPED.register(server -> this.server = null);
+		if (Platform.getEnvironment() == Env.CLIENT)
+		{
+			registerClient();
+		}
+	}
+	
+	/**
+	 * Gets the channel, the packet receiver is registered on first use
+	 *
+	 * @return the channel
+	 */
+	public static synchronized NetworkSyncChannel getInstance()
+	{
+		if (instance == null)
+		{
+			instance = new NetworkSyncChannel();
+		}
+		return instance;
+	}
+	
+	@Environment(EnvType.CLIENT)
+	private void registerClient()
+	{
+		NetworkManager.registerReceiver(NetworkManager.Side.S2C, ID, (buf, context) ->
+		{
+			String config = buf.readUtf();
+			byte[] payload = buf.readByteArray();
+			context.queue(() ->
+			{
+				ConfigSyncClient<?> client = clients.get(config);
+				if (client != null)
+				{
+					client.receive(payload);
+				}
+			});
+		});
+		ClientPlayerEvent.CLIENT_PLAYER_QUIT.register(player -> clients.values().forEach(ConfigSyncClient::disconnect));
+	}
+	
+	/**
+	 * Registers the view that receives the messages of a config on this client
+	 *
+	 * @param client the view
+	 */
+	public void register(ConfigSyncClient<?> client)
+	{
+		clients.put(client.getHandler().getName(), client);
+	}
+	
+	@Override
+	public void send(UUID player, String config, byte[] payload)
+	{
+		MinecraftServer server = this.server;
+		ServerPlayer target = server == null ? null : server.getPlayerList().getPlayer(player);
+		if (target == null)
+		{
+			return;
+		}
+		FriendlyByteBuf buf = new FriendlyByteBuf(Unpooled.buffer(payload.length + config.length() + 8));
+		buf.writeUtf(config);
+		buf.writeByteArray(payload);
+		NetworkManager.sendToPlayer(target, ID, buf);
+	}
+}
@@ -0,0 +1,19 @@
+package chase.minecraft.architectury.simplemodconfig.sync;
+
+import java.util.UUID;
+
+/**
+ * Carries sync messages from the server to one client. {@link NetworkSyncChannel} sends them as packets, {@link InMemorySyncChannel} hands them straight to a {@link ConfigSyncClient}.
+ * Messages must arrive in the order they were sent.
+ */
+public interface SyncChannel
+{
+	/**
+	 * Sends a message to a player
+	 *
+	 * @param player  the player
+	 * @param config  the name of the config the message belongs to, see {@link chase.minecraft.architectury.simplemodconfig.handlers.ConfigHandler#getName()}
+	 * @param payload the message
+	 */
+	void send(UUID player, String config, byte[] payload);
+}
@@ -0,0 +1,214 @@
+package chase.minecraft.architectury.simplemodconfig.sync;
+
+import chase.minecraft.architectury.simplemodconfig.schema.ConfigField;
+import chase.minecraft.architectury.simplemodconfig.schema.ConfigSchema;
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonParseException;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The binary format of the sync messages. A message is a kind byte, the version as a varint, for snapshots the {@link ConfigSchema#getFingerprint() schema fingerprint},
+ * and the number of entries followed by the entries. An entry is the field ordinal as a varint and the value:
+ * whole numbers as zigzag varints, decimals raw, booleans as one byte and everything else as a varint length, 0 for null, followed by the UTF-8 of the String or of its JSON.
+ */
+final class SyncCodec
+{
+	static final byte SNAPSHOT = 0;
+	static final byte DELTA = 1;
+	private static final Gson GSON = new GsonBuilder().serializeSpecialFloatingPointValues().create();
+	
+	private SyncCodec()
+	{
+	}
+	
+	/**
+	 * Encodes one entry, entries are kept per field so a value that was sent before is not sent again
+	 *
+	 * @param field the field
+	 * @param value the value of the field
+	 * @return the encoded entry
+	 */
+	static byte[] encodeEntry(ConfigField field, @Nullable Object value)
+	{
+		ByteArrayOutputStream out = new ByteArrayOutputStream(16);
+		writeVarLong(out, field.getOrdinal());
+		Class<?> type = field.getType();
+		if (type == int.class || type == long.class)
+		{
+			long number = ((Number) value).longValue();
+			writeVarLong(out, (number << 1) ^ (number >> 63));
+		} else if (type == float.class)
+		{
+			writeFixed(out, Float.floatToIntBits((Float) value), Integer.BYTES);
+		} else if (type == double.class)
+		{
+			writeFixed(out, Double.doubleToLongBits((Double) value), Long.BYTES);
+		} else if (type == boolean.class)
+		{
+			out.write((Boolean) value ? 1 : 0);
+		} else if (value == null)
+		{
+			writeVarLong(out, 0);
+		} else
+		{
+			String text = type == String.class ? (String) value : GSON.toJson(value, field.getField().getGenericType());
+			byte[] utf8 = text.getBytes(StandardCharsets.UTF_8);
+			writeVarLong(out, utf8.length + 1L);
+			out.write(utf8, 0, utf8.length);
+		}
+		return out.toByteArray();
+	}
+	
+	/**
+	 * Joins encoded entries into a message
+	 *
+	 * @param kind        {@link #SNAPSHOT} or {@link #DELTA}
+	 * @param version     the version of the values
+	 * @param fingerprint the schema fingerprint, only written for snapshots
+	 * @param entries     the encoded entries
+	 * @return the message
+	 */
+	static byte[] encode(byte kind, long version, long fingerprint, List<byte[]> entries)
+	{
+		int size = 32;
+		for (byte[] entry : entries)
+		{
+			size += entry.length;
+		}
+		ByteArrayOutputStream out = new ByteArrayOutputStream(size);
+		out.write(kind);
+		writeVarLong(out, version);
+		if (kind == SNAPSHOT)
+		{
+			writeFixed(out, fingerprint, Long.BYTES);
+		}
+		writeVarLong(out, entries.size());
+		for (byte[] entry : entries)
+		{
+			out.write(entry, 0, entry.length);
+		}
+		return out.toByteArray();
+	}
+	
+	/**
+	 * Decodes a message
+	 *
+	 * @param schema  the schema of the config on this side
+	 * @param payload the message
+	 * @return the decoded message
+	 * @throws IllegalArgumentException if the message is malformed or was encoded for a different schema
+	 */
+	static Message decode(ConfigSchema<?> schema, byte[] payload)
+	{
+		ByteBuffer buffer = ByteBuffer.wrap(payload);
+		try
+		{
+			byte kind = buffer.get();
+			if (kind != SNAPSHOT && kind != DELTA)
+			{
+				throw new IllegalArgumentException("Unknown sync message: %d".formatted(kind));
+			}
+			long version = readVarLong(buffer);
+			if (kind == SNAPSHOT && buffer.getLong() != schema.getFingerprint())
+			{
+				throw new IllegalArgumentException("The config class of the server does not match the client");
+			}
+			int count = (int) readVarLong(buffer);
+			List<ConfigField> fields = new ArrayList<>(Math.min(count, schema.size()));
+			List<Object> values = new ArrayList<>(Math.min(count, schema.size()));
+			for (int i = 0; i < count; i++)
+			{
+				ConfigField field = schema.fields().get((int) readVarLong(buffer));
+				fields.add(field);
+				values.add(decodeValue(field, buffer));
+			}
+			if (buffer.hasRemaining())
+			{
+				throw new IllegalArgumentException("Trailing bytes in sync message");
+			}
+			return new Message(kind == SNAPSHOT, version, fields, values);
+		} catch (BufferUnderflowException | IndexOutOfBoundsException | JsonParseException e)
+		{
+			throw new IllegalArgumentException("Malformed sync message", e);
+		}
+	}
+	
+	private static @Nullable Object decodeValue(ConfigField field, ByteBuffer buffer)
+	{
+		Class<?> type = field.getType();
+		if (type == int.class || type == long.class)
+		{
+			long zigzag = readVarLong(buffer);
+			long number = (zigzag >>> 1) ^ -(zigzag & 1);
+			return type == int.class ? (Object) (int) number : (Object) number;
+		}
+		if (type == float.class)
+			return buffer.getFloat();
+		if (type == double.class)
+			return buffer.getDouble();
+		if (type == boolean.class)
+			return buffer.get() != 0;
+		
+		long length = readVarLong(buffer) - 1;
+		if (length < 0)
+		{
+			return null;
+		}
+		String text = new String(buffer.array(), buffer.position(), Math.toIntExact(length), StandardCharsets.UTF_8);
+		buffer.position(buffer.position() + (int) length);
+		return type == String.class ? text : GSON.fromJson(text, field.getField().getGenericType());
+	}
+	
+	private static void writeVarLong(ByteArrayOutputStream out, long value)
+	{
+		while ((value & ~0x7FL) != 0)
+		{
+			out.write((int) (value & 0x7F) | 0x80);
+			value >>>= 7;
+		}
+		out.write((int) value);
+	}
+	
+	private static long readVarLong(ByteBuffer buffer)
+	{
+		long value = 0;
+		for (int shift = 0; shift < 64; shift += 7)
+		{
+			byte b = buffer.get();
+			value |= (long) (b & 0x7F) << shift;
+			if ((b & 0x80) == 0)
+			{
+				return value;
+			}
+		}
+		throw new IllegalArgumentException("Malformed varint in sync message");
+	}
+	
+	private static void writeFixed(ByteArrayOutputStream out, long value, int bytes)
+	{
+		for (int shift = (bytes - 1) * 8; shift >= 0; shift -= 8)
+		{
+			out.write((int) (value >>> shift));
+		}
+	}
+	
+	/**
+	 * A decoded sync message
+	 *
+	 * @param snapshot true for the full snapshot sent on join, false for a delta
+	 * @param version  the version of the values
+	 * @param fields   the fields in the message
+	 * @param values   the values of the fields, in the same order
+	 */
+	record Message(boolean snapshot, long version, List<ConfigField> fields, List<Object> values)
+	{
+	}
+}
@@ -2,6 +2,11 @@ package chase.minecraft.architectury.simplemodconfig.test;
 
 import chase.minecraft.architectury.simplemodconfig.annotation.SimpleConfig;
 
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
 public class TestConfig
 {
 	@SimpleConfig(index = 1, description = "This is a String template")
@@ -9,10 +14,10 @@ public class TestConfig
 	@SimpleConfig(index = 0, description = "This is a option selection template", options = {"Option 1", "Option 2", "Option 3", "Option 4", "Option 5", "Option 6"})
 	public String Options = "Option 1";
 	
-	@SimpleConfig(index = 2)
+	@SimpleConfig(index = 2, sync = true)
 	public boolean Toggle = false;
 	
-	@SimpleConfig(index = 3, displayName = "Small Number", description = "This is an example of a 32bit whole number")
+	@SimpleConfig(index = 3, displayName = "Small Number", description = "This is an example of a 32bit whole number", sync = true)
 	public int SmallNumber = 5;
 	@SimpleConfig(index = 4, displayName = "Ranged Number", description = "This is an example of a 32bit whole number with a min and max", min = 0, max = 32)
 	public int RangeNumber = 5;
@@ -26,5 +31,20 @@ public class TestConfig
 	@SimpleConfig(index = 7, displayName = "Large Decimal")
 	public double LargeDecimal = .5d;
 	
+	@SimpleConfig(index = 8, displayName = "Section", description = "This is an example of a nested section with a list and a map")
+	public Section Section = new Section();
+	
 	public String unused = "";
+	
+	public static class Section
+	{
+		@SimpleConfig(index = 0, description = "This is a ranged number inside a section", min = 1, max = 10)
+		public int Level = 3;
+		
+		@SimpleConfig(index = 1)
+		public List<String> Names = new ArrayList<>(List.of("Alpha", "Beta"));
+		
+		@SimpleConfig(index = 2, description = "This is a map of whole numbers", min = 0, max = 100)
+		public Map<String, Integer> Limits = new LinkedHashMap<>(Map.of("Items", 64));
+	}
 }
@@ -0,0 +1,335 @@
+package chase.minecraft.architectury.simplemodconfig.processor;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.*;
+import javax.lang.model.type.ArrayType;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.tools.Diagnostic;
+import javax.tools.JavaFileObject;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.*;
+
+/**
+ * The SimpleConfigProcessor generates a ConfigCodec for every config class, a class with {@code @SimpleConfig} fields.
+ * The codec reads and writes the config JSON field by field in plain Java, ConfigSchema picks it up by name at runtime so no registration is needed.
+ * Sections, classes that are the type of a field of another config class, are read and written through Gson by the codec of that class, so they get no codec of their own.
+ * Neither do classes that inherit {@code @SimpleConfig} fields, they are loaded with Gson.
+ * Add the processor to the annotationProcessor configuration of the project that declares the config classes.
+ */
+@SupportedAnnotationTypes(SimpleConfigProcessor.ANNOTATION)
+public class SimpleConfigProcessor extends AbstractProcessor
+{
+	static final String ANNOTATION = "chase.minecraft.architectury.simplemodconfig.annotation.SimpleConfig";
+	private static final String CODEC = "chase.minecraft.architectury.simplemodconfig.schema.ConfigCodec";
+	private static final String SUFFIX = "_SimpleConfigCodec";
+	
+	@Override
+	public SourceVersion getSupportedSourceVersion()
+	{
+		return SourceVersion.latestSupported();
+	}
+	
+	@Override
+	public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment round)
+	{
+		for (TypeElement annotation : annotations)
+		{
+			// grouped by class, each class keeps its fields in declaration order
+			Map<TypeElement, List<VariableElement>> classes = new LinkedHashMap<>();
+			for (VariableElement field : ElementFilter.fieldsIn(round.getElementsAnnotatedWith(annotation)))
+			{
+				Set<Modifier> modifiers = field.getModifiers();
+				if (modifiers.contains(Modifier.PUBLIC) && !modifiers.contains(Modifier.STATIC) && !modifiers.contains(Modifier.FINAL))
+				{
+					classes.computeIfAbsent((TypeElement) field.getEnclosingElement(), type -> new ArrayList<>()).add(field);
+				}
+			}
+			Set<TypeElement> sections = new HashSet<>();
+			for (List<VariableElement> fields : classes.values())
+			{
+				for (VariableElement field : fields)
+				{
+					collectTypes(field.asType(), sections);
+				}
+			}
+			for (Map.Entry<TypeElement, List<VariableElement>> entry : classes.entrySet())
+			{
+				if (!sections.contains(entry.getKey()) && !inheritsConfigFields(entry.getKey()))
+				{
+					generate(entry.getKey(), entry.getValue());
+				}
+			}
+		}
+		return false;
+	}
+	
+	private void generate(TypeElement type, List<VariableElement> fields)
+	{
+		if (!canInstantiate(type))
+		{
+			processingEnv.getMessager().printMessage(Diagnostic.Kind.WARNING, "No config codec generated, the class needs to be public, top level or static and have a public no-arg constructor", type);
+			return;
+		}
+		// stable sort, the same order ConfigSchema uses
+		List<VariableElement> ordered = new ArrayList<>(fields);
+		ordered.sort(Comparator.comparingInt(this::index));
+		
+		String packageName = processingEnv.getElementUtils().getPackageOf(type).getQualifiedName().toString();
+		String binaryName = processingEnv.getElementUtils().getBinaryName(type).toString();
+		String codecName = binaryName.substring(packageName.isEmpty() ? 0 : packageName.length() + 1).replace('$', '_') + SUFFIX;
+		String typeName = type.getQualifiedName().toString();
+		try
+		{
+			JavaFileObject file = processingEnv.getFiler().createSourceFile(packageName.isEmpty() ? codecName : packageName + "." + codecName, type);
+			try (PrintWriter out = new PrintWriter(file.openWriter()))
+			{
+				write(out, packageName, codecName, typeName, ordered);
+			}
+		} catch (IOException e)
+		{
+			processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, "Unable to write config codec: " + e.getMessage(), type);
+		}
+	}
+	
+	private void write(PrintWriter out, String packageName, String codecName, String typeName, List<VariableElement> fields)
+	{
+		if (!packageName.isEmpty())
+		{
+			out.println("package " + packageName + ";");
+			out.println();
+		}
+		out.println("/**");
+		out.println(" * Generated by the simple-mod-config-processor from {@link " + typeName + "}, do not edit");
+		out.println(" */");
+		out.println("public final class " + codecName + " implements " + CODEC + "<" + typeName + ">");
+		out.println("{");
+		out.println("\tprivate static final String[] FIELD_NAMES = {" + String.join(", ", fields.stream().map(field -> quote(field.getSimpleName().toString())).toList()) + "};");
+		for (int i = 0; i < fields.size(); i++)
+		{
+			VariableElement field = fields.get(i);
+			if (kind(field) == null)
+			{
+				// captures generic type arguments like List<String> without reflection
+				out.println("\tprivate static final java.lang.reflect.Type TYPE_" + i + " = new com.google.gson.reflect.TypeToken<" + boxed(field.asType()) + ">(){}.getType();");
+			}
+		}
+		out.println("\t");
+		out.println("\t@Override");
+		out.println("\tpublic Class<" + typeName + "> getType()");
+		out.println("\t{");
+		out.println("\t\treturn " + typeName + ".class;");
+		out.println("\t}");
+		out.println("\t");
+		out.println("\t@Override");
+		out.println("\tpublic String[] getFieldNames()");
+		out.println("\t{");
+		out.println("\t\treturn FIELD_NAMES.clone();");
+		out.println("\t}");
+		out.println("\t");
+		out.println("\t@Override");
+		out.println("\tpublic void write(" + typeName + " config, com.google.gson.stream.JsonWriter out, com.google.gson.Gson gson) throws java.io.IOException");
+		out.println("\t{");
+		out.println("\t\tout.beginObject();");
+		for (int i = 0; i < fields.size(); i++)
+		{
+			VariableElement field = fields.get(i);
+			String name = field.getSimpleName().toString();
+			String kind = kind(field);
+			if (kind == null || kind.equals("String"))
+			{
+				// null fields are left out, the same as Gson does without serializeNulls
+				out.println("\t\tif (config." + name + " != null)");
+				out.println("\t\t{");
+				out.println("\t\t\tout.name(" + quote(name) + ");");
+				out.println(kind == null ? "\t\t\tgson.toJson(config." + name + ", TYPE_" + i + ", out);" : "\t\t\tout.value(config." + name + ");");
+				out.println("\t\t}");
+			} else
+			{
+				out.println("\t\tout.name(" + quote(name) + ");");
+				// floats are boxed so the number is printed exactly like Gson's float adapter prints it
+				out.println(kind.equals("float") ? "\t\tout.value((Float) config." + name + ");" : "\t\tout.value(config." + name + ");");
+			}
+		}
+		out.println("\t\tout.endObject();");
+		out.println("\t}");
+		out.println("\t");
+		out.println("\t@Override");
+		out.println("\tpublic " + typeName + " read(com.google.gson.stream.JsonReader in, com.google.gson.Gson gson) throws java.io.IOException");
+		out.println("\t{");
+		out.println("\t\t" + typeName + " config = new " + typeName + "();");
+		out.println("\t\tin.beginObject();");
+		out.println("\t\twhile (in.hasNext())");
+		out.println("\t\t{");
+		out.println("\t\t\tswitch (in.nextName())");
+		out.println("\t\t\t{");
+		for (int i = 0; i < fields.size(); i++)
+		{
+			VariableElement field = fields.get(i);
+			String name = field.getSimpleName().toString();
+			String kind = kind(field);
+			String target = "config." + name;
+			if (kind == null)
+			{
+				out.println("\t\t\t\tcase " + quote(name) + " -> " + target + " = gson.fromJson(in, TYPE_" + i + ");");
+			} else if (kind.equals("String"))
+			{
+				out.println("\t\t\t\tcase " + quote(name) + " -> " + target + " = " + CODEC + ".nextString(in);");
+			} else
+			{
+				out.println("\t\t\t\tcase " + quote(name) + " ->");
+				out.println("\t\t\t\t{");
+				out.println("\t\t\t\t\tif (!" + CODEC + ".skipNull(in))");
+				out.println("\t\t\t\t\t\t" + target + " = " + read(kind) + ";");
+				out.println("\t\t\t\t}");
+			}
+		}
+		out.println("\t\t\t\tdefault -> in.skipValue();");
+		out.println("\t\t\t}");
+		out.println("\t\t}");
+		out.println("\t\tin.endObject();");
+		out.println("\t\treturn config;");
+		out.println("\t}");
+		out.println("}");
+	}
+	
+	/**
+	 * Collects the classes a field type refers to, including type arguments and array components, so {@code List<Section>} marks Section as a section
+	 */
+	private static void collectTypes(TypeMirror type, Set<TypeElement> into)
+	{
+		if (type instanceof ArrayType array)
+		{
+			collectTypes(array.getComponentType(), into);
+		} else if (type instanceof DeclaredType declared)
+		{
+			into.add((TypeElement) declared.asElement());
+			for (TypeMirror argument : declared.getTypeArguments())
+			{
+				collectTypes(argument, into);
+			}
+		}
+	}
+	
+	/**
+	 * Checks if a superclass declares config fields, ConfigSchema finds those through reflection in an order the processor can not know
+	 */
+	private static boolean inheritsConfigFields(TypeElement type)
+	{
+		TypeMirror parent = type.getSuperclass();
+		while (parent instanceof DeclaredType declared)
+		{
+			TypeElement element = (TypeElement) declared.asElement();
+			for (VariableElement field : ElementFilter.fieldsIn(element.getEnclosedElements()))
+			{
+				Set<Modifier> modifiers = field.getModifiers();
+				if (modifiers.contains(Modifier.PUBLIC) && !modifiers.contains(Modifier.STATIC) && !modifiers.contains(Modifier.FINAL) && isAnnotated(field))
+				{
+					return true;
+				}
+			}
+			parent = element.getSuperclass();
+		}
+		return false;
+	}
+	
+	private static boolean isAnnotated(VariableElement field)
+	{
+		for (AnnotationMirror mirror : field.getAnnotationMirrors())
+		{
+			if (((TypeElement) mirror.getAnnotationType().asElement()).getQualifiedName().contentEquals(ANNOTATION))
+			{
+				return true;
+			}
+		}
+		return false;
+	}
+	
+	/**
+	 * Gets how a field is read and written
+	 *
+	 * @return the primitive type name, "String", or null if the field is handled by Gson
+	 */
+	private String kind(VariableElement field)
+	{
+		TypeMirror type = field.asType();
+		if (type.getKind().isPrimitive() && type.getKind() != TypeKind.CHAR)
+		{
+			return type.toString();
+		}
+		TypeElement string = processingEnv.getElementUtils().getTypeElement("java.lang.String");
+		if (processingEnv.getTypeUtils().isSameType(type, string.asType()))
+		{
+			return "String";
+		}
+		return null;
+	}
+	
+	private static String read(String kind)
+	{
+		return switch (kind)
+		{
+			case "boolean" -> "in.nextBoolean()";
+			case "byte" -> "(byte) in.nextInt()";
+			case "short" -> "(short) in.nextInt()";
+			case "int" -> "in.nextInt()";
+			case "long" -> "in.nextLong()";
+			case "float" -> "(float) in.nextDouble()";
+			default -> "in.nextDouble()";
+		};
+	}
+	
+	private String boxed(TypeMirror type)
+	{
+		return type.getKind().isPrimitive() ? processingEnv.getTypeUtils().boxedClass((javax.lang.model.type.PrimitiveType) type).getQualifiedName().toString() : type.toString();
+	}
+	
+	private int index(VariableElement field)
+	{
+		for (AnnotationMirror mirror : field.getAnnotationMirrors())
+		{
+			if (((TypeElement) mirror.getAnnotationType().asElement()).getQualifiedName().contentEquals(ANNOTATION))
+			{
+				for (Map.Entry<? extends ExecutableElement, ? extends AnnotationValue> value : mirror.getElementValues().entrySet())
+				{
+					if (value.getKey().getSimpleName().contentEquals("index"))
+					{
+						return (Integer) value.getValue().getValue();
+					}
+				}
+			}
+		}
+		return 0;
+	}
+	
+	private static boolean canInstantiate(TypeElement type)
+	{
+		if (!type.getModifiers().contains(Modifier.PUBLIC) || type.getModifiers().contains(Modifier.ABSTRACT))
+		{
+			return false;
+		}
+		if (type.getNestingKind() != NestingKind.TOP_LEVEL && (type.getNestingKind() != NestingKind.MEMBER || !type.getModifiers().contains(Modifier.STATIC)))
+		{
+			return false;
+		}
+		for (ExecutableElement constructor : ElementFilter.constructorsIn(type.getEnclosedElements()))
+		{
+			if (constructor.getParameters().isEmpty() && constructor.getModifiers().contains(Modifier.PUBLIC))
+			{
+				return true;
+			}
+		}
+		return false;
+	}
+	
+	private static String quote(String value)
+	{
+		return "\"" + value.replace("\\", "\\\\").replace("\"", "\\\"") + "\"";
+	}
+}